@@ -1,8 +1,9 @@
-import { useState, useEffect } from 'react';
-import { useQuery, useQueryClient } from '@tanstack/react-query';
+import { useState, useEffect, useRef } from 'react';
+import { useQuery, useInfiniteQuery, useQueryClient } from '@tanstack/react-query';
 import { Link } from 'react-router-dom';
-import { bookService } from '../services/api';
+import { bookService, suggestionService } from '../services/api';
 import { useAuth } from '../contexts/AuthContext';
+import { websocketService } from '../services/websocket';
 
 const BookList = () => {
   const [page, setPage] = useState(0);
@@ -10,6 +11,8 @@ const BookList = () => {
   const [debouncedSearchTerm, setDebouncedSearchTerm] = useState('');
   const [sortField, setSortField] = useState('title');
   const [sortDirection, setSortDirection] = useState('asc');
+  // Searches come back best match first until the user picks a column to sort by
+  const [sortChosen, setSortChosen] = useState(false);
   const { isAdmin } = useAuth();
   const queryClient = useQueryClient();
   
@@ -26,14 +29,76 @@ const BookList = () => {
     };
   }, [searchTerm]);
 
+  // Searches are paged; the plain catalog scrolls with cursor pagination so deep pages stay fast
+  const isSearching = debouncedSearchTerm !== '';
+  const showSort = !isSearching || sortChosen;
+  const searchSortField = sortChosen ? sortField : null;
+  const loadMoreRef = useRef(null);
+
   const { data, isLoading, error } = useQuery({
-    queryKey: ['books', page, debouncedSearchTerm, sortField, sortDirection],
-    queryFn: () => bookService.getAllBooks(page, 10, debouncedSearchTerm, sortField, sortDirection),
+    queryKey: ['books', page, debouncedSearchTerm, searchSortField, sortDirection],
+    queryFn: () => bookService.getAllBooks(page, 10, debouncedSearchTerm, searchSortField, sortDirection),
     placeholderData: (previousData) => previousData,
+    enabled: isSearching,
+  });
+
+  const {
+    data: scrollData,
+    isLoading: isScrollLoading,
+    error: scrollError,
+    fetchNextPage,
+    hasNextPage,
+    isFetchingNextPage,
+  } = useInfiniteQuery({
+    queryKey: ['books', 'scroll', sortField, sortDirection],
+    queryFn: ({ pageParam }) => bookService.scrollBooks(pageParam, 20, sortField, sortDirection),
+    initialPageParam: null,
+    getNextPageParam: (lastPage) => (lastPage.hasNext ? lastPage.nextCursor : undefined),
+    enabled: !isSearching,
   });
 
+  useEffect(() => {
+    const sentinel = loadMoreRef.current;
+    if (isSearching || !sentinel) {
+      return undefined;
+    }
+    const observer = new IntersectionObserver((entries) => {
+      if (entries[0].isIntersecting && hasNextPage && !isFetchingNextPage) {
+        fetchNextPage();
+      }
+    });
+    observer.observe(sentinel);
+    return () => observer.disconnect();
+  }, [isSearching, hasNextPage, isFetchingNextPage, fetchNextPage]);
+
+  // The server pushes catalog changes, so the list refreshes without polling
+  useEffect(() => {
+    const refresh = () => queryClient.invalidateQueries({ queryKey: ['books'] });
+    websocketService.addListener('changes', refresh);
+    websocketService.addListener('resync', refresh);
+    websocketService.connect();
+    return () => {
+      websocketService.removeListener('changes', refresh);
+      websocketService.removeListener('resync', refresh);
+      websocketService.disconnect();
+    };
+  }, [queryClient]);
+
+  // Typeahead runs on every keystroke; it is answered from an in-memory index, not the database
+  const { data: suggestions = [] } = useQuery({
+    queryKey: ['suggestions', searchTerm],
+    queryFn: () => suggestionService.suggest(searchTerm),
+    enabled: searchTerm.trim().length >= 2,
+    staleTime: 60000,
+  });
+
+  const books = isSearching
+    ? data?.content ?? []
+    : scrollData?.pages.flatMap((scrollPage) => scrollPage.content) ?? [];
+
   const handleSort = (field) => {
-    if (field === sortField) {
+    setSortChosen(true);
+    if (field === sortField && showSort) {
       setSortDirection(sortDirection === 'asc' ? 'desc' : 'asc');
     } else {
       setSortField(field);
@@ -42,8 +107,8 @@ const BookList = () => {
     queryClient.invalidateQueries(['books']);
   };
 
-  if (isLoading && !data) return <div>Loading...</div>;
-  if (error) return <div>Error loading books</div>;
+  if (isSearching ? isLoading && !data : isScrollLoading) return <div>Loading...</div>;
+  if (isSearching ? error : scrollError) return <div>Error loading books</div>;
 
   return (
     <div>
@@ -56,7 +121,13 @@ const BookList = () => {
               placeholder="Search by title, author, or genre..."
               value={searchTerm}
               onChange={(e) => setSearchTerm(e.target.value)}
+              list="search-suggestions"
             />
+            <datalist id="search-suggestions">
+              {suggestions.map((suggestion) => (
+                <option key={`${suggestion.type}-${suggestion.id}`} value={suggestion.text} />
+              ))}
+            </datalist>
           </form>
         </div>
         {isAdmin() && (
@@ -73,20 +144,20 @@ const BookList = () => {
           <thead>
             <tr>
               <th onClick={() => handleSort('title')} style={{ cursor: 'pointer' }}>
-                Title {sortField === 'title' && (sortDirection === 'asc' ? '↑' : '↓')}
+                Title {showSort && sortField === 'title' && (sortDirection === 'asc' ? '↑' : '↓')}
               </th>
               <th onClick={() => handleSort('author')} style={{ cursor: 'pointer' }}>
-                Author {sortField === 'author' && (sortDirection === 'asc' ? '↑' : '↓')}
+                Author {showSort && sortField === 'author' && (sortDirection === 'asc' ? '↑' : '↓')}
               </th>
               <th onClick={() => handleSort('genre')} style={{ cursor: 'pointer' }}>
-                Genre {sortField === 'genre' && (sortDirection === 'asc' ? '↑' : '↓')}
+                Genre {showSort && sortField === 'genre' && (sortDirection === 'asc' ? '↑' : '↓')}
               </th>
               <th>Cover</th>
               <th>Actions</th>
             </tr>
           </thead>
           <tbody>
-            {data?.content.map((book) => (
+            {books.map((book) => (
               <tr key={book.id}>
                 <td>{book.title}</td>
                 <td>{book.authors.map(author => author.name).join(', ')}</td>
@@ -94,7 +165,15 @@ const BookList = () => {
                 <td>
                   {book.coverImagePath && (
                     <img
-                      src={`http://localhost:8080/uploads/covers/${book.coverImagePath}`}
+                      src={`http://localhost:8080/uploads/covers/${book.coverThumbnailPath}`}
+                      onError={(e) => {
+                        // The thumbnail is generated asynchronously; fall back to the original until it exists
+                        const original = `http://localhost:8080/uploads/covers/${book.coverImagePath}`;
+                        if (e.currentTarget.src !== original) {
+                          e.currentTarget.src = original;
+                        }
+                      }}
+                      loading="lazy"
                       alt={book.title}
                       style={{ width: '50px', height: '75px', objectFit: 'cover' }}
                     />
@@ -125,6 +204,13 @@ const BookList = () => {
         </table>
       </div>
 
+      {!isSearching && (
+        <div ref={loadMoreRef} className="text-center my-3">
+          {isFetchingNextPage && 'Loading more...'}
+        </div>
+      )}
+
+      {isSearching && (
       <nav>
         <ul className="pagination justify-content-center">
           <li className={`page-item ${page === 0 ? 'disabled' : ''}`}>
@@ -142,6 +228,7 @@ const BookList = () => {
           </li>
         </ul>
       </nav>
+      )}
     </div>
   );
 };
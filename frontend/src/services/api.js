@@ -40,13 +40,23 @@ export const genreService = {
   },
 };
 
+export const suggestionService = {
+  suggest: async (query, limit = 8) => {
+    const response = await api.get('/suggestions', { params: { q: query, limit } });
+    return response.data;
+  },
+};
+
 export const bookService = {
+  // Without a sort field, searches are ranked by relevance
   getAllBooks: async (page = 0, size = 10, searchTerm = '', sortField = 'title', sortDirection = 'asc') => {
     const params = new URLSearchParams({
       page,
       size,
-      sort: `${sortField},${sortDirection}`,
     });
+    if (sortField) {
+      params.append('sort', `${sortField},${sortDirection}`);
+    }
 
     if (searchTerm) {
       params.append('searchTerm', searchTerm);
@@ -55,6 +65,20 @@ export const bookService = {
     const response = await api.get(`/books`, { params });
     return response.data;
   },
+  scrollBooks: async (cursor = null, size = 20, sortField = 'title', sortDirection = 'asc') => {
+    const params = new URLSearchParams({
+      size,
+      orderBy: sortField === 'title' ? 'title' : 'id',
+      direction: sortDirection,
+    });
+
+    if (cursor) {
+      params.append('cursor', cursor);
+    }
+
+    const response = await api.get('/books/scroll', { params });
+    return response.data;
+  },
   getBookById: async (id) => {
     const response = await api.get(`/books/${id}`);
     return response.data;
@@ -1,38 +1,53 @@
-import { io } from 'socket.io-client';
+const SOCKET_URL = 'ws://localhost:8080/ws/catalog';
 
-const SOCKET_URL = 'http://localhost:8080';
+// Reconnect delays grow up to this, so a restarting server is not hammered by every open tab
+const MAX_RECONNECT_DELAY = 30000;
 
 class WebSocketService {
   constructor() {
     this.socket = null;
     this.listeners = new Map();
+    this.reconnectDelay = 1000;
+    this.reconnectTimer = null;
+    this.wanted = false;
   }
 
   connect() {
-    if (!this.socket) {
-      this.socket = io(SOCKET_URL);
-
-      this.socket.on('connect', () => {
-        console.log('WebSocket connected');
-      });
+    this.wanted = true;
+    if (this.socket) {
+      return;
+    }
+    const token = sessionStorage.getItem('token');
+    if (!token) {
+      return;
+    }
+    this.socket = new WebSocket(`${SOCKET_URL}?token=${encodeURIComponent(token)}`);
 
-      this.socket.on('disconnect', () => {
-        console.log('WebSocket disconnected');
-      });
+    this.socket.onopen = () => {
+      this.reconnectDelay = 1000;
+    };
 
-      this.socket.on('bookUpdate', (data) => {
-        this.notifyListeners('bookUpdate', data);
-      });
+    this.socket.onmessage = (event) => {
+      const message = JSON.parse(event.data);
+      this.notifyListeners(message.type, message);
+    };
 
-      this.socket.on('newBook', (data) => {
-        this.notifyListeners('newBook', data);
-      });
-    }
+    this.socket.onclose = () => {
+      this.socket = null;
+      if (this.wanted) {
+        // Changes made while disconnected were never delivered
+        this.notifyListeners('resync', {});
+        this.reconnectTimer = setTimeout(() => this.connect(), this.reconnectDelay);
+        this.reconnectDelay = Math.min(this.reconnectDelay * 2, MAX_RECONNECT_DELAY);
+      }
+    };
   }
 
   disconnect() {
+    this.wanted = false;
+    clearTimeout(this.reconnectTimer);
     if (this.socket) {
-      this.socket.disconnect();
+      this.socket.close();
       this.socket = null;
     }
   }
@@ -57,4 +72,4 @@ class WebSocketService {
   }
 }
 
-export const websocketService = new WebSocketService(); 
\ No newline at end of file
+export const websocketService = new WebSocketService();
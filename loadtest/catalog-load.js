@@ -0,0 +1,104 @@
+// k6 load test for the catalog API.
+//
+//   k6 run -e BASE_URL=http://localhost:8080 -e VUS=800 loadtest/catalog-load.js
+//
+// Run it once against the default (platform thread) server and once with the
+// virtual-threads profile, then compare http_req_duration p(99) and http_reqs rate.
+//
+// Every virtual user signs in as its own account (loadtest-<VU>@example.com, registered
+// on first use), so the per-user rate limit applies per VU as it would to real clients.
+import http from 'k6/http';
+import { check, sleep } from 'k6';
+import { randomIntBetween } from 'https://jslib.k6.io/k6-utils/1.4.0/index.js';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const VUS = parseInt(__ENV.VUS || '500', 10);
+const DURATION = __ENV.DURATION || '2m';
+const UPLOAD_RATE = parseInt(__ENV.UPLOAD_RATE || '20', 10);
+const THINK_TIME = parseFloat(__ENV.THINK_TIME || '1');
+const PASSWORD = __ENV.PASSWORD || 'loadtest123';
+const TERMS = ['shadow', 'river', 'empire', 'garden', 'winter', 'journey', 'crown', 'ocean'];
+
+export const options = {
+  scenarios: {
+    browse: {
+      executor: 'constant-vus',
+      exec: 'browse',
+      vus: VUS,
+      duration: DURATION,
+    },
+    upload: {
+      executor: 'constant-arrival-rate',
+      exec: 'upload',
+      rate: UPLOAD_RATE,
+      timeUnit: '1s',
+      duration: DURATION,
+      preAllocatedVUs: 50,
+    },
+  },
+  summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+  thresholds: {
+    'http_req_failed': ['rate<0.01'],
+  },
+};
+
+// Module state is per VU, so each VU keeps its own token
+let token;
+
+function auth() {
+  if (!token) {
+    const email = `loadtest-${__VU}@example.com`;
+    const json = { headers: { 'Content-Type': 'application/json' }, tags: { name: 'auth' } };
+    // Registering answers with a token; an account left over from an earlier run signs in instead
+    let res = http.post(`${BASE_URL}/api/auth/register`,
+      JSON.stringify({ name: `Load Test ${__VU}`, email, password: PASSWORD }), json);
+    if (res.status !== 200) {
+      res = http.post(`${BASE_URL}/api/auth/login`, JSON.stringify({ email, password: PASSWORD }), json);
+    }
+    check(res, { 'signed in': (r) => r.status === 200 });
+    token = res.json('token');
+  }
+  return { headers: { Authorization: `Bearer ${token}` } };
+}
+
+export function browse() {
+  const params = auth();
+  const list = http.get(`${BASE_URL}/api/books?page=${randomIntBetween(0, 20)}&size=20`,
+    Object.assign({ tags: { name: 'list' } }, params));
+  check(list, { 'list 200': (r) => r.status === 200 });
+
+  const term = TERMS[randomIntBetween(0, TERMS.length - 1)];
+  const search = http.get(`${BASE_URL}/api/books?searchTerm=${term}&size=20`,
+    Object.assign({ tags: { name: 'search' } }, params));
+  check(search, { 'search 200': (r) => r.status === 200 });
+
+  const ids = (list.json('content') || []).map((book) => book.id);
+  if (ids.length > 0) {
+    const detail = http.get(`${BASE_URL}/api/books/${ids[randomIntBetween(0, ids.length - 1)]}`,
+      Object.assign({ tags: { name: 'detail' } }, params));
+    check(detail, { 'detail 200': (r) => r.status === 200 });
+  }
+  sleep(THINK_TIME);
+}
+
+export function upload() {
+  // Unique content per request so every upload is written to disk instead of deduplicated
+  const id = `${__VU}-${__ITER}-${Date.now()}`;
+  const cover = new Uint8Array(256 * 1024);
+  for (let i = 0; i < cover.length; i += 1024) {
+    cover[i] = randomIntBetween(0, 255);
+  }
+  for (let i = 0; i < id.length; i++) {
+    cover[i] = id.charCodeAt(i) & 0xff;
+  }
+
+  const res = http.post(`${BASE_URL}/api/books`, {
+    title: `Load test ${id}`,
+    description: 'Created by the load test',
+    isbn: `load-${id}`,
+    author: 'Load Test Author',
+    genre: 'Load Test',
+    coverImage: http.file(cover.buffer, `${id}.jpg`, 'image/jpeg'),
+  }, Object.assign({ tags: { name: 'upload' } }, auth()));
+  check(res, { 'upload 201': (r) => r.status === 201 });
+}
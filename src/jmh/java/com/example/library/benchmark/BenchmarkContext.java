@@ -0,0 +1,107 @@
+package com.example.library.benchmark;
+
+import com.example.library.LibraryManagementSystemApplication;
+import com.example.library.entity.Author;
+import com.example.library.entity.Book;
+import com.example.library.entity.Genre;
+import com.example.library.search.BookSearchIndex;
+import com.example.library.service.AuthorService;
+import com.example.library.service.BookService;
+import com.example.library.service.GenreService;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Boots the application against an in-memory H2 database and fills it with a generated
+ * catalog, so benchmarks exercise the real service, repository and index wiring.
+ */
+final class BenchmarkContext {
+
+    static final String[] WORDS = {
+            "shadow", "river", "empire", "garden", "winter", "letters", "journey", "silent",
+            "crown", "ocean", "memory", "night", "stone", "forest", "machine", "fire"
+    };
+
+    private BenchmarkContext() {
+    }
+
+    static ConfigurableApplicationContext start(String databaseName) {
+        ConfigurableApplicationContext context = start(
+                "spring.datasource.url=jdbc:h2:mem:" + databaseName + ";DB_CLOSE_DELAY=-1;MODE=MySQL",
+                "spring.datasource.username=sa",
+                "spring.datasource.password=",
+                "spring.datasource.driver-class-name=org.h2.Driver",
+                "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect");
+        // Results measured against whatever database application.properties names are not comparable
+        String url = context.getEnvironment().getProperty("spring.datasource.url", "");
+        if (!url.startsWith("jdbc:h2:mem:")) {
+            context.close();
+            throw new IllegalStateException("Benchmark context is not using in-memory H2 but " + url);
+        }
+        return context;
+    }
+
+    /**
+     * Boots with the given properties on top of application.properties. They are passed as command
+     * line arguments, because builder default properties rank below application.properties.
+     */
+    static ConfigurableApplicationContext start(String... properties) {
+        List<String> args = new ArrayList<>(List.of(
+                "server.port=0",
+                "spring.jpa.hibernate.ddl-auto=create-drop",
+                "app.logging.sql-sample-rate=0",
+                "logging.level.root=WARN",
+                "logging.level.org.springframework=WARN",
+                "logging.level.com.example.library=WARN",
+                "logging.level.org.hibernate.SQL=WARN",
+                "logging.level.org.hibernate.orm.jdbc.bind=WARN"));
+        args.addAll(List.of(properties));
+        return new SpringApplicationBuilder(LibraryManagementSystemApplication.class)
+                .run(args.stream().map(arg -> "--" + arg).toArray(String[]::new));
+    }
+
+    static void generateCatalog(ConfigurableApplicationContext context, int books) {
+        GenreService genreService = context.getBean(GenreService.class);
+        AuthorService authorService = context.getBean(AuthorService.class);
+        BookService bookService = context.getBean(BookService.class);
+        Random random = new Random(42);
+
+        List<Genre> genres = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            genres.add(genreService.findOrCreateByName("Genre " + i, "Generated genre"));
+        }
+        List<Author> authors = new ArrayList<>();
+        for (int i = 0; i < Math.max(1, books / 10); i++) {
+            authors.add(authorService.findOrCreateByName("Author " + i, "Generated author"));
+        }
+
+        for (int i = 0; i < books; i++) {
+            Book book = new Book();
+            book.setTitle(word(random) + " " + word(random) + " " + i);
+            book.setDescription("A novel about the " + word(random) + " and the " + word(random));
+            book.setIsbn("bench-" + i);
+            book.setGenre(genres.get(random.nextInt(genres.size())));
+            book.setAuthors(new HashSet<>(Set.of(authors.get(random.nextInt(authors.size())))));
+            book.setPublishDate(LocalDateTime.of(1900 + random.nextInt(120), 1, 1, 0, 0));
+            bookService.createBook(book, null);
+        }
+    }
+
+    static void awaitSearchIndex(ConfigurableApplicationContext context) throws InterruptedException {
+        BookSearchIndex index = context.getBean(BookSearchIndex.class);
+        while (!index.isReady()) {
+            Thread.sleep(50);
+        }
+    }
+
+    static String word(Random random) {
+        return WORDS[random.nextInt(WORDS.length)];
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.library.benchmark;
+
+import com.example.library.entity.Author;
+import com.example.library.entity.Book;
+import com.example.library.entity.Genre;
+import com.example.library.service.AuthorService;
+import com.example.library.service.BookService;
+import com.example.library.service.GenreService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookServiceBenchmark {
+
+    @Param({"1000", "10000"})
+    private int catalogSize;
+
+    private ConfigurableApplicationContext context;
+    private BookService bookService;
+    private Author author;
+    private Genre genre;
+    private final Random random = new Random(7);
+    private final AtomicLong isbnSequence = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() throws InterruptedException {
+        context = BenchmarkContext.start("books" + catalogSize);
+        BenchmarkContext.generateCatalog(context, catalogSize);
+        BenchmarkContext.awaitSearchIndex(context);
+        bookService = context.getBean(BookService.class);
+        author = context.getBean(AuthorService.class).findOrCreateByName("Author 0", "Generated author");
+        genre = context.getBean(GenreService.class).findOrCreateByName("Genre 0", "Generated genre");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<Book> listBooks() {
+        int pages = Math.max(1, catalogSize / 20);
+        return bookService.getAllBooks(null, PageRequest.of(random.nextInt(pages), 20));
+    }
+
+    @Benchmark
+    public Page<Book> searchBooks() {
+        return bookService.getAllBooks(BenchmarkContext.word(random), PageRequest.of(0, 20));
+    }
+
+    @Benchmark
+    public Page<Book> findByAuthor() {
+        return bookService.findByAuthor(author.getId(), PageRequest.of(0, 20));
+    }
+
+    @Benchmark
+    public Book createBook() {
+        Book book = new Book();
+        book.setTitle("Benchmark " + BenchmarkContext.word(random));
+        book.setDescription("Created by the benchmark");
+        book.setIsbn("create-" + catalogSize + "-" + isbnSequence.incrementAndGet());
+        book.setGenre(genre);
+        book.setAuthors(new HashSet<>(Set.of(author)));
+        return bookService.createBook(book, null);
+    }
+}
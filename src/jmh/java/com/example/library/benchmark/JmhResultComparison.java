@@ -0,0 +1,98 @@
+package com.example.library.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares two JMH JSON result files benchmark by benchmark:
+ * {@code JmhResultComparison <baseline.json> <current.json>}.
+ * <p>
+ * A change counts as a regression or improvement only when the two score intervals (score plus or
+ * minus its error) do not overlap, so noise between runs is not reported. Exits with status 1 when
+ * anything regressed.
+ */
+public final class JmhResultComparison {
+
+    private JmhResultComparison() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: JmhResultComparison <baseline.json> <current.json>");
+            System.exit(2);
+        }
+        Map<String, JsonNode> baseline = read(args[0]);
+        Map<String, JsonNode> current = read(args[1]);
+
+        int regressions = 0;
+        System.out.printf("%-70s %14s %14s %9s  %s%n", "Benchmark", "Baseline", "Current", "Change", "Verdict");
+        for (Map.Entry<String, JsonNode> entry : current.entrySet()) {
+            JsonNode before = baseline.get(entry.getKey());
+            JsonNode after = entry.getValue();
+            JsonNode afterMetric = after.get("primaryMetric");
+            if (before == null) {
+                System.out.printf("%-70s %14s %14.3f %9s  new%n", entry.getKey(), "-", afterMetric.get("score").asDouble(), "");
+                continue;
+            }
+            JsonNode beforeMetric = before.get("primaryMetric");
+            double beforeScore = beforeMetric.get("score").asDouble();
+            double afterScore = afterMetric.get("score").asDouble();
+            double change = beforeScore == 0 ? 0 : (afterScore - beforeScore) / beforeScore * 100;
+            String verdict = verdict(after.get("mode").asText(), beforeScore, errorOf(beforeMetric),
+                    afterScore, errorOf(afterMetric));
+            if (verdict.equals("regressed")) {
+                regressions++;
+            }
+            System.out.printf("%-70s %14.3f %14.3f %+8.1f%%  %s (%s)%n", entry.getKey(), beforeScore, afterScore,
+                    change, verdict, afterMetric.get("scoreUnit").asText());
+        }
+        baseline.keySet().stream()
+                .filter(key -> !current.containsKey(key))
+                .forEach(key -> System.out.printf("%-70s %14s %14s %9s  missing%n", key, "", "-", ""));
+
+        if (regressions > 0) {
+            System.out.println(regressions + " benchmark(s) regressed");
+            System.exit(1);
+        }
+    }
+
+    // Throughput is better when higher; every other mode reports time per operation
+    static String verdict(String mode, double beforeScore, double beforeError, double afterScore, double afterError) {
+        boolean higherIsBetter = mode.equals("thrpt");
+        if (afterScore - afterError > beforeScore + beforeError) {
+            return higherIsBetter ? "improved" : "regressed";
+        }
+        if (afterScore + afterError < beforeScore - beforeError) {
+            return higherIsBetter ? "regressed" : "improved";
+        }
+        return "unchanged";
+    }
+
+    private static double errorOf(JsonNode metric) {
+        // JMH writes "NaN" when a run had too few iterations to estimate the error
+        double error = metric.path("scoreError").asDouble(0);
+        return Double.isNaN(error) ? 0 : error;
+    }
+
+    private static Map<String, JsonNode> read(String path) throws IOException {
+        Map<String, JsonNode> results = new LinkedHashMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(new File(path))) {
+            results.put(keyOf(result), result);
+        }
+        return results;
+    }
+
+    private static String keyOf(JsonNode result) {
+        String benchmark = result.get("benchmark").asText();
+        String name = benchmark.substring(benchmark.lastIndexOf('.', benchmark.lastIndexOf('.') - 1) + 1);
+        Map<String, String> params = new TreeMap<>();
+        result.path("params").properties().forEach(param -> params.put(param.getKey(), param.getValue().asText()));
+        return params.isEmpty() ? name : name + " " + params;
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.library.benchmark;
+
+import com.example.library.security.JwtTokenProvider;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtTokenProviderBenchmark {
+
+    private JwtTokenProvider tokenProvider;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        tokenProvider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(tokenProvider, "jwtSecret", "your-256-bit-secret-key-here-make-it-long-and-secure");
+        ReflectionTestUtils.setField(tokenProvider, "jwtExpirationInMs", 86400000);
+        ReflectionTestUtils.invokeMethod(tokenProvider, "init");
+        token = tokenProvider.generateToken("admin@example.com");
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return tokenProvider.generateToken("admin@example.com");
+    }
+
+    @Benchmark
+    public Claims parseClaims() {
+        return tokenProvider.parseClaims(token);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return tokenProvider.validateToken(token);
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.library.benchmark;
+
+import com.example.library.dto.BookImportResult;
+import com.example.library.dto.ImportFormat;
+import com.example.library.entity.Book;
+import com.example.library.repository.BookRepository;
+import com.example.library.service.BookImportService;
+import com.example.library.service.CatalogGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compares the default datasource settings with the mysql-tuned profile against a real MySQL
+ * server. Point it at a scratch schema, the tables are dropped afterwards:
+ * <pre>
+ * BENCHMARK_MYSQL_URL=jdbc:mysql://localhost:3306/library_bench?createDatabaseIfNotExist=true \
+ *     mvn -Pbenchmark test-compile exec:exec -Djmh.args="MySqlDataSourceBenchmark"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class MySqlDataSourceBenchmark {
+
+    private static final int IMPORT_ROWS = 1000;
+
+    @Param({"default", "mysql-tuned"})
+    private String profile;
+
+    private ConfigurableApplicationContext context;
+    private BookRepository bookRepository;
+    private BookImportService bookImportService;
+    private final Random random = new Random(7);
+    private final AtomicLong importSequence = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start(
+                "spring.datasource.url=" + env("BENCHMARK_MYSQL_URL",
+                        "jdbc:mysql://localhost:3306/library_bench?createDatabaseIfNotExist=true"),
+                "spring.datasource.username=" + env("BENCHMARK_MYSQL_USERNAME", "root"),
+                "spring.datasource.password=" + env("BENCHMARK_MYSQL_PASSWORD", "mysql123"),
+                "spring.profiles.active=" + ("default".equals(profile) ? "" : profile));
+        context.getBean(CatalogGenerator.class).generate(24, 2000, 50_000);
+        bookRepository = context.getBean(BookRepository.class);
+        bookImportService = context.getBean(BookImportService.class);
+    }
+
+    private static String env(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return value != null ? value : defaultValue;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<Book> searchBooks() {
+        return bookRepository.searchBooks(BenchmarkContext.word(random), PageRequest.of(random.nextInt(5), 20));
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public BookImportResult importBatch() throws IOException {
+        long batch = importSequence.incrementAndGet();
+        StringBuilder csv = new StringBuilder("title,description,isbn,author,genre,publishedYear\n");
+        for (int i = 0; i < IMPORT_ROWS; i++) {
+            csv.append("Imported ").append(BenchmarkContext.word(random)).append(',')
+                    .append("Benchmark import row,")
+                    .append("bench-").append(profile).append('-').append(batch).append('-').append(i).append(',')
+                    .append("Author ").append(i % 50).append(',')
+                    .append("Fiction,2001\n");
+        }
+        return bookImportService.importBooks(
+                new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)), ImportFormat.CSV);
+    }
+}
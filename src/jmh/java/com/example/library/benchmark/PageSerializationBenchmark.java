@@ -0,0 +1,97 @@
+package com.example.library.benchmark;
+
+import com.example.library.dto.BookSummary;
+import com.example.library.dto.FieldSelection;
+import com.example.library.dto.PageResponse;
+import com.example.library.entity.Author;
+import com.example.library.entity.Book;
+import com.example.library.entity.Genre;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PageSerializationBenchmark {
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    private ObjectMapper objectMapper;
+    private Page<Book> page;
+    private PageResponse<BookSummary> summaries;
+
+    @Setup
+    public void setUp() {
+        // Same defaults Spring MVC applies to the message converter
+        objectMapper = Jackson2ObjectMapperBuilder.json().filters(FieldSelection.all()).build();
+
+        Genre genre = new Genre();
+        genre.setId(1L);
+        genre.setName("Fiction");
+        genre.setDescription("Fictional literature and stories");
+
+        List<Book> books = new ArrayList<>();
+        for (int i = 0; i < pageSize; i++) {
+            Author author = new Author();
+            author.setId((long) i);
+            author.setName("Author " + i);
+            author.setDescription("Generated author biography");
+
+            Book book = new Book();
+            book.setId((long) i);
+            book.setTitle("Generated title " + i);
+            book.setDescription("x".repeat(1000));
+            book.setIsbn("978000000" + i);
+            book.setPublishDate(LocalDateTime.of(2000, 1, 1, 0, 0));
+            book.setCoverImagePath("cover-" + i + ".jpg");
+            book.setGenre(genre);
+            book.setAuthors(new HashSet<>(Set.of(author)));
+            books.add(book);
+        }
+        page = new PageImpl<>(books, PageRequest.of(0, pageSize), 10_000);
+        summaries = PageResponse.of(page, BookSummary::of);
+    }
+
+    // What the list endpoints wrote before they returned DTOs
+    @Benchmark
+    public byte[] serializeEntityPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] serializeSummaryPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(summaries);
+    }
+
+    // Includes the mapping, which runs on every request
+    @Benchmark
+    public byte[] mapAndSerializeSummaryPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(PageResponse.of(page, BookSummary::of));
+    }
+}
@@ -3,6 +3,7 @@ package com.example.library;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 
@@ -13,6 +14,9 @@ import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 public class LibraryManagementSystemApplication {
 
     public static void main(String[] args) {
-        SpringApplication.run(LibraryManagementSystemApplication.class, args);
+        SpringApplication application = new SpringApplication(LibraryManagementSystemApplication.class);
+        // Records boot phases for /actuator/startup and the startup report
+        application.setApplicationStartup(new BufferingApplicationStartup(4096));
+        application.run(args);
     }
-} 
\ No newline at end of file
+}
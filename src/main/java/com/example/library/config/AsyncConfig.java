@@ -0,0 +1,60 @@
+package com.example.library.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.boot.system.JavaVersion;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Slf4j
+@Configuration
+@EnableScheduling
+public class AsyncConfig {
+
+    /**
+     * Spring Boot silently ignores spring.threads.virtual.enabled below Java 21, so a virtual-threads
+     * run would measure platform threads. Refuse to start instead, before any bean is created.
+     */
+    @Bean
+    public static BeanFactoryPostProcessor virtualThreadsCheck(Environment environment) {
+        return beanFactory -> {
+            if (environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false)
+                    && !JavaVersion.getJavaVersion().isEqualOrNewerThan(JavaVersion.TWENTY_ONE)) {
+                throw new IllegalStateException("spring.threads.virtual.enabled requires Java 21 or later, but this is Java "
+                        + JavaVersion.getJavaVersion());
+            }
+        };
+    }
+
+    // Variant generation is best effort: when the queue is full the original cover is served instead
+    @Bean
+    public ThreadPoolTaskExecutor coverImageExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(2);
+        executor.setQueueCapacity(500);
+        executor.setThreadNamePrefix("cover-image-");
+        executor.setRejectedExecutionHandler((task, pool) ->
+                log.warn("Cover image queue is full, skipping variant generation"));
+        return executor;
+    }
+
+    // Hashing is CPU-bound; a short queue and abort policy turn a login burst into fast 503s
+    // instead of every core spinning on BCrypt
+    @Bean
+    public ThreadPoolTaskExecutor passwordHashingExecutor(
+            @Value("${app.security.password-hashing.threads:0}") int threads,
+            @Value("${app.security.password-hashing.queue-capacity:32}") int queueCapacity) {
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("password-hash-");
+        return executor;
+    }
+}
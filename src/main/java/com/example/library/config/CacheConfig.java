@@ -0,0 +1,14 @@
+package com.example.library.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+// Caches are Caffeine-backed; size, expiry and stats recording come from spring.cache.* properties
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String GENRES = "genres";
+    public static final String GENRES_BY_NAME = "genresByName";
+    public static final String AUTHORS_BY_NAME = "authorsByName";
+}
@@ -10,19 +10,124 @@ import com.example.library.repository.UserRepository;
 import com.example.library.repository.AuthorRepository;
 import com.example.library.repository.GenreRepository;
 import com.example.library.repository.BookRepository;
-import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
+/**
+ * Seeds roles, the admin account and the sample catalog. It runs after the context has refreshed,
+ * so a boot that stops at refresh, like the CDS training run, never needs the database, and before
+ * {@link SyntheticCatalogSeeder}, so the sample catalog keeps the lowest ids.
+ */
+@Slf4j
 @Component
 @RequiredArgsConstructor
-public class DataInitializer {
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class DataInitializer implements ApplicationRunner {
+
+    private static final String ADMIN_EMAIL = "admin@example.com";
+    private static final List<String> ROLES = List.of("ROLE_USER", "ROLE_ADMIN");
+
+    private static final List<Sample> GENRES = List.of(
+        new Sample("Fiction", "Fictional literature and stories"),
+        new Sample("Mystery", "Mystery and detective fiction"),
+        new Sample("Science Fiction", "Science fiction and fantasy"),
+        new Sample("Romance", "Romance novels and love stories"),
+        new Sample("Historical Fiction", "Fiction set in a particular historical period"),
+        new Sample("Thriller", "Suspenseful fiction with fast-paced plots"),
+        new Sample("Horror", "Fiction designed to evoke fear"),
+        new Sample("Fantasy", "Fantasy and magical fiction"));
+
+    private static final List<Sample> AUTHORS = List.of(
+        new Sample("J.K. Rowling", "British author best known for the Harry Potter series"),
+        new Sample("Agatha Christie", "English writer known for her detective novels"),
+        new Sample("Isaac Asimov", "American writer and professor of biochemistry"),
+        new Sample("Jane Austen", "English novelist known for romantic fiction"),
+        new Sample("J.R.R. Tolkien", "English writer and philologist"),
+        new Sample("George Orwell", "English novelist, essayist, journalist and critic"),
+        new Sample("F. Scott Fitzgerald", "American novelist and short story writer"),
+        new Sample("Herman Melville", "American novelist, short story writer, and poet"),
+        new Sample("Leo Tolstoy", "Russian writer known for War and Peace"),
+        new Sample("Stephen King", "American author of horror, supernatural fiction, and fantasy"),
+        new Sample("Charles Dickens", "English novelist and social critic"),
+        new Sample("Mark Twain", "American writer and humorist best known for The Adventures of Huckleberry Finn"),
+        new Sample("Mary Shelley", "English novelist known for writing Frankenstein"),
+        new Sample("Kurt Vonnegut", "American author known for his satirical novels"),
+        new Sample("Haruki Murakami", "Japanese writer known for surreal novels blending reality and fantasy"),
+        new Sample("George R.R. Martin", "American novelist known for A Song of Ice and Fire series"),
+        new Sample("Harper Lee", "American novelist"),
+        new Sample("J.D. Salinger", "American writer"),
+        new Sample("Aldous Huxley", "English writer and philosopher"),
+        new Sample("William Golding", "British novelist, playwright, and poet"),
+        new Sample("Ray Bradbury", "American author and screenwriter"));
+
+    private static final List<SampleBook> BOOKS = List.of(
+        new SampleBook("Harry Potter and the Philosopher's Stone", "The first novel in the Harry Potter series",
+            "9780747532699", "Fiction", "J.K. Rowling", "harry_potter.jpg"),
+        new SampleBook("Murder on the Orient Express", "A detective novel featuring Hercule Poirot",
+            "9780062073495", "Mystery", "Agatha Christie", "murder_on_the_orient_express.jpg"),
+        new SampleBook("Foundation", "The first novel in the Foundation series",
+            "9780553293357", "Science Fiction", "Isaac Asimov", "foundation.jpg"),
+        new SampleBook("Pride and Prejudice", "A romantic novel of manners",
+            "9780141439518", "Romance", "Jane Austen", "pride_and_prejudice.jpg"),
+        new SampleBook("The Hobbit", "A fantasy novel about Bilbo Baggins",
+            "9780547928241", "Fiction", "J.R.R. Tolkien", "the_hobbit.jpg"),
+        new SampleBook("1984", "A dystopian social science fiction novel and cautionary tale",
+            "9780451524935", "Science Fiction", "George Orwell", "1984.jpg"),
+        new SampleBook("The Great Gatsby", "A novel about the American dream",
+            "9780743273565", "Fiction", "F. Scott Fitzgerald", "the_great_gatsby.jpg"),
+        new SampleBook("Moby Dick", "A novel about the voyage of the whaling ship Pequod",
+            "9781503280786", "Fiction", "Herman Melville", "moby_dick.jpg"),
+        new SampleBook("Animal Farm", "A satirical allegorical novella",
+            "9780451526342", "Science Fiction", "George Orwell", "animal_farm.jpg"),
+        new SampleBook("To Kill a Mockingbird", "A novel about the seriousness of racism",
+            "9780061120084", "Fiction", "Harper Lee", "to_kill_a_mockingbird.jpg"),
+        new SampleBook("The Catcher in the Rye", "A novel about teenage angst and alienation",
+            "9780316769488", "Fiction", "J.D. Salinger", "the_catcher_in_the_rye.jpg"),
+        new SampleBook("Brave New World", "A dystopian novel",
+            "9780060850524", "Science Fiction", "Aldous Huxley", "brave_new_world.jpg"),
+        new SampleBook("Lord of the Flies", "A novel about a group of British boys stranded on an uninhabited island",
+            "9780399501487", "Fiction", "William Golding", "lord_of_the_flies.jpg"),
+        new SampleBook("Fahrenheit 451", "A dystopian novel about a future American society where books are outlawed",
+            "9781451673319", "Science Fiction", "Ray Bradbury", "fahrenheit_451.jpg"),
+        new SampleBook("The Lord of the Rings", "An epic high-fantasy novel",
+            "9780618640157", "Fiction", "J.R.R. Tolkien", "the_lord_of_the_rings.jpg"),
+        new SampleBook("War and Peace", "An epic historical novel about Russian society during the Napoleonic wars",
+            "9780140447934", "Historical Fiction", "Leo Tolstoy", "war_and_peace.jpg"),
+        new SampleBook("The Shining", "A horror novel about a family staying at an isolated hotel",
+            "9780307743657", "Horror", "Stephen King", "the_shining.jpg"),
+        new SampleBook("A Tale of Two Cities", "A novel set during the French Revolution and the Reign of Terror",
+            "9781853260391", "Historical Fiction", "Charles Dickens", "a_tale_of_two_cities.jpg"),
+        new SampleBook("The Adventures of Huckleberry Finn", "A story about the adventures of a boy and a runaway slave on the Mississippi River",
+            "9780142437179", "Thriller", "Mark Twain", "huckleberry_finn.jpg"),
+        new SampleBook("Frankenstein", "A novel about a scientist who creates a monstrous creature",
+            "9780141439471", "Horror", "Mary Shelley", "frankenstein.jpg"),
+        new SampleBook("Slaughterhouse-Five", "A novel about the bombing of Dresden in WWII and time travel",
+            "9780440180296", "Science Fiction", "Kurt Vonnegut", "slaughterhouse_five.jpg"),
+        new SampleBook("Norwegian Wood", "A coming-of-age novel exploring love, loss, and mental illness",
+            "9780375704024", "Romance", "Haruki Murakami", "norwegian_wood.jpg"),
+        new SampleBook("A Game of Thrones", "The first book in the A Song of Ice and Fire series, filled with political intrigue",
+            "9780553593716", "Fantasy", "George R.R. Martin", "game_of_thrones.jpg"));
+
+    // Counts every seeded row in one round trip; the row-by-row path below only runs when something is missing
+    private static final String SEEDED_ROWS_SQL =
+        "SELECT (SELECT COUNT(*) FROM roles WHERE name IN (:roles)) " +
+        "+ (SELECT COUNT(*) FROM users WHERE email = :adminEmail) " +
+        "+ (SELECT COUNT(*) FROM books WHERE isbn IN (:isbns))";
 
     private final RoleRepository roleRepository;
     private final UserRepository userRepository;
@@ -30,28 +135,41 @@ public class DataInitializer {
     private final GenreRepository genreRepository;
     private final BookRepository bookRepository;
     private final PasswordEncoder passwordEncoder;
-
-    @PostConstruct
-    @Transactional
-    public void init() {
-        // Create default roles if they don't exist
-        if (!roleRepository.existsByName("ROLE_USER")) {
-            Role userRole = new Role();
-            userRole.setName("ROLE_USER");
-            roleRepository.save(userRole);
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (isSeeded()) {
+            log.debug("Sample data already present, skipping seeding");
+            return;
         }
+        transactionTemplate.executeWithoutResult(status -> seed());
+    }
 
-        if (!roleRepository.existsByName("ROLE_ADMIN")) {
-            Role adminRole = new Role();
-            adminRole.setName("ROLE_ADMIN");
-            roleRepository.save(adminRole);
+    private boolean isSeeded() {
+        Integer seededRows = jdbcTemplate.queryForObject(SEEDED_ROWS_SQL, Map.of(
+            "roles", ROLES,
+            "adminEmail", ADMIN_EMAIL,
+            "isbns", BOOKS.stream().map(SampleBook::isbn).toList()), Integer.class);
+        return seededRows != null && seededRows == ROLES.size() + 1 + BOOKS.size();
+    }
+
+    private void seed() {
+        // Create default roles if they don't exist
+        for (String roleName : ROLES) {
+            if (!roleRepository.existsByName(roleName)) {
+                Role role = new Role();
+                role.setName(roleName);
+                roleRepository.save(role);
+            }
         }
 
         // Create admin user if not exists
-        if (!userRepository.existsByEmail("admin@example.com")) {
+        if (!userRepository.existsByEmail(ADMIN_EMAIL)) {
             User admin = new User();
             admin.setName("Admin User");
-            admin.setEmail("admin@example.com");
+            admin.setEmail(ADMIN_EMAIL);
             admin.setPassword(passwordEncoder.encode("admin123"));
             Set<Role> roles = new HashSet<>();
             roles.add(roleRepository.findByName("ROLE_ADMIN").get());
@@ -59,198 +177,17 @@ public class DataInitializer {
             userRepository.save(admin);
         }
 
-        // Create sample genres if they don't exist
-        Genre fiction = createGenreIfNotExists("Fiction", "Fictional literature and stories");
-        Genre mystery = createGenreIfNotExists("Mystery", "Mystery and detective fiction");
-        Genre scifi = createGenreIfNotExists("Science Fiction", "Science fiction and fantasy");
-        Genre romance = createGenreIfNotExists("Romance", "Romance novels and love stories");
-        Genre historicalFiction = createGenreIfNotExists("Historical Fiction", "Fiction set in a particular historical period");
-        Genre thriller = createGenreIfNotExists("Thriller", "Suspenseful fiction with fast-paced plots");
-        Genre horror = createGenreIfNotExists("Horror", "Fiction designed to evoke fear");
-        Genre fantasy = createGenreIfNotExists("Fantasy", "Fantasy and magical fiction");
-        
-
-        // Create sample authors if they don't exist
-        Author author1 = createAuthorIfNotExists("J.K. Rowling", "British author best known for the Harry Potter series");
-        Author author2 = createAuthorIfNotExists("Agatha Christie", "English writer known for her detective novels");
-        Author author3 = createAuthorIfNotExists("Isaac Asimov", "American writer and professor of biochemistry");
-        Author author4 = createAuthorIfNotExists("Jane Austen", "English novelist known for romantic fiction");
-        Author author5 = createAuthorIfNotExists("J.R.R. Tolkien", "English writer and philologist");
-        Author author6 = createAuthorIfNotExists("George Orwell", "English novelist, essayist, journalist and critic");
-        Author author7 = createAuthorIfNotExists("F. Scott Fitzgerald", "American novelist and short story writer");
-        Author author8 = createAuthorIfNotExists("Herman Melville", "American novelist, short story writer, and poet");
-        Author author9 = createAuthorIfNotExists("Leo Tolstoy", "Russian writer known for War and Peace");
-        Author author10 = createAuthorIfNotExists("Stephen King", "American author of horror, supernatural fiction, and fantasy");
-        Author author11 = createAuthorIfNotExists("Charles Dickens", "English novelist and social critic");
-        Author author12 = createAuthorIfNotExists("Mark Twain", "American writer and humorist best known for The Adventures of Huckleberry Finn");
-        Author author13 = createAuthorIfNotExists("Mary Shelley", "English novelist known for writing Frankenstein");
-        Author author14 = createAuthorIfNotExists("Kurt Vonnegut", "American author known for his satirical novels");
-        Author author15 = createAuthorIfNotExists("Haruki Murakami", "Japanese writer known for surreal novels blending reality and fantasy");
-        Author author16 = createAuthorIfNotExists("George R.R. Martin", "American novelist known for A Song of Ice and Fire series");
-
-
-        // Create sample books if they don't exist
-        createBookIfNotExists("Harry Potter and the Philosopher's Stone", 
-            "The first novel in the Harry Potter series", 
-            "9780747532699", 
-            fiction, 
-            Set.of(author1),
-            "harry_potter.jpg");
-
-        createBookIfNotExists("Murder on the Orient Express", 
-            "A detective novel featuring Hercule Poirot", 
-            "9780062073495", 
-            mystery, 
-            Set.of(author2),
-            "murder_on_the_orient_express.jpg");
-
-        createBookIfNotExists("Foundation", 
-            "The first novel in the Foundation series", 
-            "9780553293357", 
-            scifi, 
-            Set.of(author3),
-            "foundation.jpg");
-
-        createBookIfNotExists("Pride and Prejudice", 
-            "A romantic novel of manners", 
-            "9780141439518", 
-            romance, 
-            Set.of(author4),
-            "pride_and_prejudice.jpg");
-
-        createBookIfNotExists("The Hobbit", 
-            "A fantasy novel about Bilbo Baggins", 
-            "9780547928241", 
-            fiction, 
-            Set.of(author5),
-            "the_hobbit.jpg");
+        // Create sample genres, authors and books if they don't exist
+        Map<String, Genre> genres = new HashMap<>();
+        GENRES.forEach(sample -> genres.put(sample.name(), createGenreIfNotExists(sample.name(), sample.description())));
 
-        createBookIfNotExists("1984",
-            "A dystopian social science fiction novel and cautionary tale",
-            "9780451524935",
-            scifi,
-            Set.of(author6),
-            "1984.jpg");
+        Map<String, Author> authors = new HashMap<>();
+        AUTHORS.forEach(sample -> authors.put(sample.name(), createAuthorIfNotExists(sample.name(), sample.description())));
 
-        createBookIfNotExists("The Great Gatsby",
-            "A novel about the American dream",
-            "9780743273565",
-            fiction,
-            Set.of(author7),
-            "the_great_gatsby.jpg");
-
-        createBookIfNotExists("Moby Dick",
-            "A novel about the voyage of the whaling ship Pequod",
-            "9781503280786",
-            fiction,
-            Set.of(author8),
-            "moby_dick.jpg");
-
-        createBookIfNotExists("Animal Farm",
-            "A satirical allegorical novella",
-            "9780451526342",
-            scifi,
-            Set.of(author6),
-            "animal_farm.jpg");
-
-        createBookIfNotExists("To Kill a Mockingbird",
-            "A novel about the seriousness of racism",
-            "9780061120084",
-            fiction,
-            Set.of(createAuthorIfNotExists("Harper Lee", "American novelist")),
-            "to_kill_a_mockingbird.jpg");
-
-        createBookIfNotExists("The Catcher in the Rye",
-            "A novel about teenage angst and alienation",
-            "9780316769488",
-            fiction,
-            Set.of(createAuthorIfNotExists("J.D. Salinger", "American writer")),
-            "the_catcher_in_the_rye.jpg");
-            
-        createBookIfNotExists("Brave New World",
-            "A dystopian novel",
-            "9780060850524",
-            scifi,
-            Set.of(createAuthorIfNotExists("Aldous Huxley", "English writer and philosopher")),
-            "brave_new_world.jpg");
-
-        createBookIfNotExists("Lord of the Flies",
-            "A novel about a group of British boys stranded on an uninhabited island",
-            "9780399501487",
-            fiction,
-            Set.of(createAuthorIfNotExists("William Golding", "British novelist, playwright, and poet")),
-            "lord_of_the_flies.jpg");
-
-        createBookIfNotExists("Fahrenheit 451",
-            "A dystopian novel about a future American society where books are outlawed",
-            "9781451673319",
-            scifi,
-            Set.of(createAuthorIfNotExists("Ray Bradbury", "American author and screenwriter")),
-            "fahrenheit_451.jpg");
-
-        createBookIfNotExists("The Lord of the Rings",
-            "An epic high-fantasy novel",
-            "9780618640157",
-            fiction,
-            Set.of(author5),    
-            "the_lord_of_the_rings.jpg");
-        
-            createBookIfNotExists("War and Peace", 
-            "An epic historical novel about Russian society during the Napoleonic wars", 
-            "9780140447934", 
-            historicalFiction, 
-            Set.of(author9),
-            "war_and_peace.jpg");
-        
-        createBookIfNotExists("The Shining", 
-            "A horror novel about a family staying at an isolated hotel", 
-            "9780307743657", 
-            horror, 
-            Set.of(author10),
-            "the_shining.jpg");
-        
-        createBookIfNotExists("A Tale of Two Cities", 
-            "A novel set during the French Revolution and the Reign of Terror", 
-            "9781853260391", 
-            historicalFiction, 
-            Set.of(author11),
-            "a_tale_of_two_cities.jpg");
-        
-        createBookIfNotExists("The Adventures of Huckleberry Finn", 
-            "A story about the adventures of a boy and a runaway slave on the Mississippi River", 
-            "9780142437179", 
-            thriller, 
-            Set.of(author12),
-            "huckleberry_finn.jpg");
-        
-        createBookIfNotExists("Frankenstein", 
-            "A novel about a scientist who creates a monstrous creature", 
-            "9780141439471", 
-            horror, 
-            Set.of(author13),
-            "frankenstein.jpg");
-        
-        createBookIfNotExists("Slaughterhouse-Five", 
-            "A novel about the bombing of Dresden in WWII and time travel", 
-            "9780440180296", 
-            scifi, 
-            Set.of(author14),
-            "slaughterhouse_five.jpg");
-        
-        createBookIfNotExists("Norwegian Wood", 
-            "A coming-of-age novel exploring love, loss, and mental illness", 
-            "9780375704024", 
-            romance, 
-            Set.of(author15),
-            "norwegian_wood.jpg");
-        
-        createBookIfNotExists("A Game of Thrones", 
-            "The first book in the A Song of Ice and Fire series, filled with political intrigue", 
-            "9780553593716", 
-            fantasy, 
-            Set.of(author16),
-            "game_of_thrones.jpg");
-        
+        for (SampleBook sample : BOOKS) {
+            createBookIfNotExists(sample.title(), sample.description(), sample.isbn(),
+                genres.get(sample.genre()), Set.of(authors.get(sample.author())), sample.coverImage());
+        }
     }
 
     private Genre createGenreIfNotExists(String name, String description) {
@@ -286,4 +223,11 @@ public class DataInitializer {
             bookRepository.save(book);
         }
     }
-} 
\ No newline at end of file
+
+    private record Sample(String name, String description) {
+    }
+
+    private record SampleBook(String title, String description, String isbn, String genre, String author,
+                              String coverImage) {
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.library.config;
+
+import com.example.library.feed.CatalogFeed;
+import com.example.library.search.BookSearchIndex;
+import com.example.library.search.SearchResultCache;
+import com.example.library.search.SuggestionIndex;
+import com.example.library.security.LoginAttemptLimiter;
+import com.example.library.security.RateLimitFilter;
+import com.example.library.security.VerifiedPrincipalCache;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Gauges for in-memory structures that are not Spring caches. Spring caches, the cover executor,
+ * HTTP endpoints and repository invocations are instrumented by the actuator auto-configuration.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder principalCacheMetrics(VerifiedPrincipalCache principalCache) {
+        return registry -> Gauge.builder("library.security.principal.cache.size", principalCache, VerifiedPrincipalCache::size)
+                .description("Verified tokens currently remembered")
+                .register(registry);
+    }
+
+    @Bean
+    public MeterBinder loginLimiterMetrics(LoginAttemptLimiter loginAttemptLimiter) {
+        return registry -> Gauge.builder("library.security.login.limiter.size", loginAttemptLimiter, LoginAttemptLimiter::size)
+                .description("Client addresses and accounts with login attempts being counted")
+                .register(registry);
+    }
+
+    @Bean
+    public MeterBinder rateLimitMetrics(RateLimitFilter rateLimitFilter) {
+        return registry -> Gauge.builder("library.ratelimit.clients", rateLimitFilter, RateLimitFilter::trackedClients)
+                .description("Clients with a rate limit bucket")
+                .register(registry);
+    }
+
+    @Bean
+    public MeterBinder searchIndexMetrics(BookSearchIndex bookSearchIndex) {
+        return registry -> {
+            Gauge.builder("library.search.index.size", bookSearchIndex, BookSearchIndex::size)
+                    .description("Books in the in-memory search index")
+                    .register(registry);
+            Gauge.builder("library.search.index.ready", bookSearchIndex, index -> index.isReady() ? 1 : 0)
+                    .register(registry);
+        };
+    }
+
+    // Reported like the Spring caches, as cache_gets_total and friends with cache=searchResults
+    @Bean
+    public MeterBinder searchResultCacheMetrics(SearchResultCache searchResultCache) {
+        return registry -> CaffeineCacheMetrics.monitor(registry, searchResultCache.getNativeCache(), "searchResults");
+    }
+
+    @Bean
+    public MeterBinder suggestionIndexMetrics(SuggestionIndex suggestionIndex) {
+        return registry -> Gauge.builder("library.search.suggestions.size", suggestionIndex, SuggestionIndex::size)
+                .description("Titles and names in the typeahead index")
+                .register(registry);
+    }
+
+    @Bean
+    public MeterBinder catalogFeedMetrics(CatalogFeed catalogFeed) {
+        return registry -> Gauge.builder("library.feed.connections", catalogFeed, CatalogFeed::connections)
+                .description("Open catalog change feed WebSockets")
+                .register(registry);
+    }
+}
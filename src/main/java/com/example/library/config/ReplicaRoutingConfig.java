@@ -0,0 +1,82 @@
+package com.example.library.config;
+
+import com.example.library.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Replaces the auto-configured datasource with primary/replica routing when
+ * {@code app.datasource.replica.urls} is set. Pool settings under {@code spring.datasource.hikari}
+ * apply to the primary; replica pools are read-only and may be down at startup.
+ */
+@Configuration
+@ConditionalOnProperty("app.datasource.replica.urls")
+public class ReplicaRoutingConfig {
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            DataSourceProperties properties,
+            Environment environment,
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${app.datasource.replica.urls}") List<String> replicaUrls,
+            @Value("${app.datasource.replica.username:${spring.datasource.username:}}") String username,
+            @Value("${app.datasource.replica.password:${spring.datasource.password:}}") String password,
+            @Value("${app.datasource.replica.maximum-pool-size:10}") int maximumPoolSize,
+            @Value("${app.datasource.replica.max-lag:PT5S}") Duration maxLag,
+            @Value("${app.datasource.replica.sticky-window:PT10S}") Duration stickyWindow,
+            @Value("${app.datasource.replica.lag-query:}") String lagQuery) {
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        primary.setPoolName("primary");
+        withMetrics(primary, meterRegistry);
+
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + (i + 1));
+            replica.setJdbcUrl(replicaUrls.get(i).trim());
+            replica.setUsername(username);
+            replica.setPassword(password);
+            replica.setDriverClassName(properties.determineDriverClassName());
+            replica.setMaximumPoolSize(maximumPoolSize);
+            replica.setReadOnly(true);
+            replica.setInitializationFailTimeout(-1);
+            replica.setDataSourceProperties(primary.getDataSourceProperties());
+            withMetrics(replica, meterRegistry);
+            replicas.put(replica.getPoolName(), replica);
+        }
+
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, replicas, maxLag, stickyWindow, lagQuery);
+        routing.afterPropertiesSet();
+        routing.checkReplicas();
+        return routing;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    private static void withMetrics(HikariDataSource dataSource, ObjectProvider<MeterRegistry> meterRegistry) {
+        meterRegistry.ifAvailable(registry -> dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+    }
+}
@@ -1,9 +1,16 @@
 package com.example.library.config;
 
+import com.example.library.security.BoundedPasswordEncoder;
 import com.example.library.security.JwtAuthenticationFilter;
+import com.example.library.security.RateLimitFilter;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -14,12 +21,15 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import java.time.Duration;
+
 @Configuration
 @EnableWebSecurity
 @RequiredArgsConstructor
 public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
+    private final RateLimitFilter rateLimitFilter;
 
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
@@ -28,18 +38,37 @@ public class SecurityConfig {
             .cors(cors -> cors.configure(http))
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(auth -> auth
+                // Completes a streamed response whose request was already authorized; the JWT filter
+                // does not run again on this dispatch, so it would otherwise be denied
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                 .requestMatchers("/api/auth/**").permitAll()
                 .requestMatchers("/swagger-ui/**", "/v3/api-docs/**").permitAll()
+                // Covers are loaded by <img> tags and shared caches, which send no bearer token
+                .requestMatchers(HttpMethod.GET, "/uploads/covers/**").permitAll()
+                // Scraped by Prometheus and probed by the orchestrator without credentials
+                .requestMatchers("/actuator/health/**", "/actuator/prometheus").permitAll()
+                // Browsers cannot send a bearer header on a WebSocket; the handshake checks the token itself
+                .requestMatchers("/ws/catalog").permitAll()
+                .requestMatchers("/actuator/**").hasRole("ADMIN")
+                .requestMatchers("/api/covers/**").hasRole("ADMIN")
                 .anyRequest().authenticated()
             )
-            .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+            .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+            // After authentication, so signed-in clients are limited by user rather than address
+            .addFilterAfter(rateLimitFilter, JwtAuthenticationFilter.class);
 
         return http.build();
     }
 
+    /**
+     * BCrypt at a configurable cost, run on the bounded hashing pool. Raising the cost upgrades
+     * existing hashes as their users next sign in.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${app.security.bcrypt-strength:10}") int strength,
+                                           @Value("${app.security.password-hashing.timeout:PT5S}") Duration timeout,
+                                           @Qualifier("passwordHashingExecutor") ThreadPoolTaskExecutor executor) {
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(strength), executor, timeout);
     }
 
     @Bean
@@ -0,0 +1,82 @@
+package com.example.library.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.core.metrics.StartupStep;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+@Slf4j
+@Configuration
+public class StartupConfig {
+
+    /**
+     * Beans from the configured packages are only created on first use. Their controllers stay mapped,
+     * because handler methods are detected from the bean type without instantiating the bean.
+     */
+    @Bean
+    public static BeanFactoryPostProcessor lazyBeansPostProcessor(Environment environment) {
+        List<String> packages = List.of(environment.getProperty("app.startup.lazy-packages", String[].class, new String[0]));
+        return beanFactory -> {
+            if (packages.isEmpty()) {
+                return;
+            }
+            for (String name : beanFactory.getBeanDefinitionNames()) {
+                BeanDefinition definition = beanFactory.getBeanDefinition(name);
+                String source = sourceClassName(definition);
+                if (source != null && packages.stream().anyMatch(source::startsWith)) {
+                    definition.setLazyInit(true);
+                }
+            }
+        };
+    }
+
+    @EventListener
+    public void reportStartup(ApplicationReadyEvent event) {
+        if (!(event.getApplicationContext().getApplicationStartup() instanceof BufferingApplicationStartup startup)) {
+            return;
+        }
+        int limit = event.getApplicationContext().getEnvironment().getProperty("app.startup.report-size", Integer.class, 10);
+        if (limit <= 0) {
+            return;
+        }
+        // Only bean instantiation steps: the enclosing refresh step would dominate every ranking
+        String slowest = startup.getBufferedTimeline().getEvents().stream()
+                .filter(step -> "spring.beans.instantiate".equals(step.getStartupStep().getName()))
+                .sorted(Comparator.comparing(StartupTimeline.TimelineEvent::getDuration).reversed())
+                .limit(limit)
+                .map(step -> String.format("%6d ms  %s", step.getDuration().toMillis(), beanName(step.getStartupStep())))
+                .collect(Collectors.joining(System.lineSeparator()));
+        Duration timeTaken = event.getTimeTaken();
+        log.info("Started in {} ms, slowest bean initializations:{}{}",
+                timeTaken != null ? timeTaken.toMillis() : -1, System.lineSeparator(), slowest);
+    }
+
+    private static String sourceClassName(BeanDefinition definition) {
+        if (definition instanceof AnnotatedBeanDefinition annotated && annotated.getFactoryMethodMetadata() != null) {
+            return annotated.getFactoryMethodMetadata().getDeclaringClassName();
+        }
+        return definition.getBeanClassName();
+    }
+
+    private static String beanName(StartupStep step) {
+        return StreamSupport.stream(step.getTags().spliterator(), false)
+                .filter(tag -> "beanName".equals(tag.getKey()))
+                .map(StartupStep.Tag::getValue)
+                .findFirst()
+                .orElse("?");
+    }
+}
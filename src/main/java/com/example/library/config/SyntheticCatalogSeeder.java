@@ -0,0 +1,36 @@
+package com.example.library.config;
+
+import com.example.library.service.CatalogGenerator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Generates a synthetic catalog at startup when {@code app.seed.books} is set, see the
+ * {@code seed} profile. Runs before the application reports ready, so the search index
+ * is built over the generated books.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty("app.seed.books")
+public class SyntheticCatalogSeeder implements ApplicationRunner {
+
+    private final CatalogGenerator catalogGenerator;
+
+    @Value("${app.seed.genres:24}")
+    private int genres;
+
+    @Value("${app.seed.authors:10000}")
+    private int authors;
+
+    @Value("${app.seed.books}")
+    private long books;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        catalogGenerator.generate(genres, authors, books);
+    }
+}
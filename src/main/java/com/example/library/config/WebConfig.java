@@ -1,8 +1,10 @@
 package com.example.library.config;
 
+import com.example.library.dto.FieldSelection;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
-import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Configuration
@@ -17,9 +19,10 @@ public class WebConfig implements WebMvcConfigurer {
                 .allowCredentials(true);
     }
 
-    @Override
-    public void addResourceHandlers(ResourceHandlerRegistry registry) {
-        registry.addResourceHandler("/uploads/**")
-                .addResourceLocations("file:uploads/");
+    // DTOs carry a field-selection filter; without a provider Jackson would refuse to serialize them
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer fieldSelectionCustomizer() {
+        return builder -> builder.filters(FieldSelection.all());
     }
-} 
\ No newline at end of file
+}
+ 
\ No newline at end of file
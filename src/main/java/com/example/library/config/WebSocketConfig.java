@@ -0,0 +1,25 @@
+package com.example.library.config;
+
+import com.example.library.feed.CatalogFeed;
+import com.example.library.feed.TokenHandshakeInterceptor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+@Configuration
+@EnableWebSocket
+@RequiredArgsConstructor
+public class WebSocketConfig implements WebSocketConfigurer {
+
+    private final CatalogFeed catalogFeed;
+    private final TokenHandshakeInterceptor tokenHandshakeInterceptor;
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        registry.addHandler(catalogFeed, "/ws/catalog")
+                .addInterceptors(tokenHandshakeInterceptor)
+                .setAllowedOrigins("http://localhost:5173", "http://localhost:5174", "http://localhost:5175");
+    }
+}
@@ -1,15 +1,18 @@
 package com.example.library.controller;
 
+import com.example.library.dto.AuthorSummary;
+import com.example.library.dto.CursorPage;
+import com.example.library.dto.PageResponse;
 import com.example.library.entity.Author;
 import com.example.library.service.AuthorService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/api/authors")
@@ -18,19 +21,20 @@ import org.springframework.web.bind.annotation.*;
 public class AuthorController {
 
     private final AuthorService authorService;
+    private final ConditionalResponses conditionalResponses;
 
     @PostMapping
     @Operation(summary = "Create a new author")
-    public ResponseEntity<Author> createAuthor(@RequestBody Author author) {
-        return new ResponseEntity<>(authorService.createAuthor(author), HttpStatus.CREATED);
+    public ResponseEntity<AuthorSummary> createAuthor(@RequestBody Author author) {
+        return new ResponseEntity<>(AuthorSummary.of(authorService.createAuthor(author)), HttpStatus.CREATED);
     }
 
     @PutMapping("/{id}")
     @Operation(summary = "Update an existing author")
-    public ResponseEntity<Author> updateAuthor(
+    public ResponseEntity<AuthorSummary> updateAuthor(
             @PathVariable Long id,
             @RequestBody Author author) {
-        return ResponseEntity.ok(authorService.updateAuthor(id, author));
+        return ResponseEntity.ok(AuthorSummary.of(authorService.updateAuthor(id, author)));
     }
 
     @DeleteMapping("/{id}")
@@ -42,21 +46,35 @@ public class AuthorController {
 
     @GetMapping("/{id}")
     @Operation(summary = "Get an author by ID")
-    public ResponseEntity<Author> getAuthorById(@PathVariable Long id) {
-        return ResponseEntity.ok(authorService.getAuthorById(id));
+    public ResponseEntity<AuthorSummary> getAuthorById(@PathVariable Long id, WebRequest request) {
+        return conditionalResponses.entity(request, "author", id, authorService.getLastModified(id),
+                () -> AuthorSummary.of(authorService.getAuthorById(id)));
     }
 
     @GetMapping
     @Operation(summary = "Get all authors with pagination")
-    public ResponseEntity<Page<Author>> getAllAuthors(Pageable pageable) {
-        return ResponseEntity.ok(authorService.getAllAuthors(pageable));
+    public ResponseEntity<PageResponse<AuthorSummary>> getAllAuthors(Pageable pageable, WebRequest request) {
+        return conditionalResponses.catalog(request, "authors",
+                () -> PageResponse.of(authorService.getAllAuthors(pageable), AuthorSummary::of));
+    }
+
+    @GetMapping("/scroll")
+    @Operation(summary = "Get all authors with cursor pagination")
+    public ResponseEntity<CursorPage<AuthorSummary>> scrollAuthors(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            WebRequest request) {
+        return conditionalResponses.catalog(request, "authors",
+                () -> authorService.scrollAuthors(cursor, size).map(AuthorSummary::of));
     }
 
     @GetMapping("/search")
     @Operation(summary = "Search authors")
-    public ResponseEntity<Page<Author>> searchAuthors(
+    public ResponseEntity<PageResponse<AuthorSummary>> searchAuthors(
             @RequestParam String searchTerm,
-            Pageable pageable) {
-        return ResponseEntity.ok(authorService.searchAuthors(searchTerm, pageable));
+            Pageable pageable,
+            WebRequest request) {
+        return conditionalResponses.catalog(request, "authors",
+                () -> PageResponse.of(authorService.searchAuthors(searchTerm, pageable), AuthorSummary::of));
     }
 } 
\ No newline at end of file
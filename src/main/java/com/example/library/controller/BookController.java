@@ -1,21 +1,39 @@
 package com.example.library.controller;
 
+import com.example.library.dto.BookDetail;
+import com.example.library.dto.BookImportResult;
+import com.example.library.dto.BookSummary;
+import com.example.library.dto.CursorPage;
+import com.example.library.dto.FieldSelection;
+import com.example.library.dto.ImportFormat;
+import com.example.library.dto.PageResponse;
 import com.example.library.entity.Book;
 import com.example.library.entity.Author;
 import com.example.library.entity.Genre;
-import com.example.library.repository.AuthorRepository;
-import com.example.library.repository.GenreRepository;
+import com.example.library.service.AuthorService;
+import com.example.library.service.BookImportService;
 import com.example.library.service.BookService;
+import com.example.library.service.GenreService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.Set;
 
@@ -26,12 +44,15 @@ import java.util.Set;
 public class BookController {
 
     private final BookService bookService;
-    private final AuthorRepository authorRepository;
-    private final GenreRepository genreRepository;
+    private final BookImportService bookImportService;
+    private final AuthorService authorService;
+    private final GenreService genreService;
+    private final ConditionalResponses conditionalResponses;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     @Operation(summary = "Create a new book")
-    public ResponseEntity<Book> createBook(
+    public ResponseEntity<BookDetail> createBook(
             @RequestParam("title") String title,
             @RequestParam("description") String description,
             @RequestParam("isbn") String isbn,
@@ -41,22 +62,10 @@ public class BookController {
             @RequestPart(value = "coverImage", required = false) MultipartFile coverImage) {
         
         // Create or find author
-        Author author = authorRepository.findByName(authorName)
-                .orElseGet(() -> {
-                    Author newAuthor = new Author();
-                    newAuthor.setName(authorName);
-                    newAuthor.setDescription("Author biography");
-                    return authorRepository.save(newAuthor);
-                });
+        Author author = authorService.findOrCreateByName(authorName, "Author biography");
 
         // Create or find genre
-        Genre genre = genreRepository.findByName(genreName)
-                .orElseGet(() -> {
-                    Genre newGenre = new Genre();
-                    newGenre.setName(genreName);
-                    newGenre.setDescription("Genre description");
-                    return genreRepository.save(newGenre);
-                });
+        Genre genre = genreService.findOrCreateByName(genreName, "Genre description");
 
         // Create book
         Book book = new Book();
@@ -70,12 +79,21 @@ public class BookController {
             book.setPublishDate(LocalDateTime.of(publishedYear, 1, 1, 0, 0));
         }
 
-        return new ResponseEntity<>(bookService.createBook(book, coverImage), HttpStatus.CREATED);
+        return new ResponseEntity<>(BookDetail.of(bookService.createBook(book, coverImage)), HttpStatus.CREATED);
+    }
+
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    @Operation(summary = "Bulk import books from a streamed CSV or JSON-lines body")
+    public ResponseEntity<BookImportResult> importBooks(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            HttpServletRequest request) throws IOException {
+        ImportFormat format = contentType.startsWith("text/csv") ? ImportFormat.CSV : ImportFormat.JSON_LINES;
+        return ResponseEntity.ok(bookImportService.importBooks(request.getInputStream(), format));
     }
 
     @PutMapping("/{id}")
     @Operation(summary = "Update an existing book")
-    public ResponseEntity<Book> updateBook(
+    public ResponseEntity<BookDetail> updateBook(
             @PathVariable Long id,
             @RequestParam("title") String title,
             @RequestParam("description") String description,
@@ -86,22 +104,10 @@ public class BookController {
             @RequestPart(value = "coverImage", required = false) MultipartFile coverImage) {
         
         // Create or find author
-        Author author = authorRepository.findByName(authorName)
-                .orElseGet(() -> {
-                    Author newAuthor = new Author();
-                    newAuthor.setName(authorName);
-                    newAuthor.setDescription("Author Description");
-                    return authorRepository.save(newAuthor);
-                });
+        Author author = authorService.findOrCreateByName(authorName, "Author Description");
 
         // Create or find genre
-        Genre genre = genreRepository.findByName(genreName)
-                .orElseGet(() -> {
-                    Genre newGenre = new Genre();
-                    newGenre.setName(genreName);
-                    newGenre.setDescription("Genre description");
-                    return genreRepository.save(newGenre);
-                });
+        Genre genre = genreService.findOrCreateByName(genreName, "Genre description");
 
         // Create book object for update
         Book book = new Book();
@@ -115,7 +121,7 @@ public class BookController {
             book.setPublishDate(LocalDateTime.of(publishedYear, 1, 1, 0, 0));
         }
 
-        return ResponseEntity.ok(bookService.updateBook(id, book, coverImage));
+        return ResponseEntity.ok(BookDetail.of(bookService.updateBook(id, book, coverImage)));
     }
 
     @DeleteMapping("/{id}")
@@ -127,39 +133,110 @@ public class BookController {
 
     @GetMapping("/{id}")
     @Operation(summary = "Get a book by ID")
-    public ResponseEntity<Book> getBookById(@PathVariable Long id) {
-        return ResponseEntity.ok(bookService.getBookById(id));
+    public ResponseEntity<BookDetail> getBookById(@PathVariable Long id, WebRequest request) {
+        return conditionalResponses.entity(request, "book", id, bookService.getLastModified(id),
+                () -> BookDetail.of(bookService.getBookById(id)));
     }
 
     @GetMapping
     @Operation(summary = "Get all books with pagination and search")
-    public ResponseEntity<Page<Book>> getAllBooks(
+    public ResponseEntity<PageResponse<BookSummary>> getAllBooks(
             @RequestParam(required = false) String searchTerm,
-            Pageable pageable) {
-        return ResponseEntity.ok(bookService.getAllBooks(searchTerm, pageable));
+            Pageable pageable,
+            WebRequest request) {
+        return conditionalResponses.catalog(request, "books",
+                () -> PageResponse.of(bookService.getAllBooks(searchTerm, pageable), BookSummary::of));
+    }
+
+    @GetMapping("/scroll")
+    @Operation(summary = "Get books with cursor pagination, ordered by id or title")
+    public ResponseEntity<CursorPage<BookSummary>> scrollBooks(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "id") String orderBy,
+            @RequestParam(defaultValue = "asc") String direction,
+            WebRequest request) {
+        Sort.Direction titleDirection = "title".equalsIgnoreCase(orderBy) ? Sort.Direction.fromString(direction) : null;
+        return conditionalResponses.catalog(request, "books",
+                () -> bookService.scrollBooks(cursor, size, titleDirection).map(BookSummary::of));
+    }
+
+    // Keyset chunks, each its own short read, written as they are mapped: neither the entities nor the
+    // JSON of the whole catalog is ever held in memory. Each chunk gets a fresh EntityManager and
+    // connection only because open-in-view is off; a request-scoped one would accumulate every chunk
+    @GetMapping("/export")
+    @Operation(summary = "Stream every book as a JSON array of list rows")
+    public ResponseEntity<StreamingResponseBody> exportBooks(
+            @RequestParam(name = FieldSelection.PARAMETER, required = false) String fields) {
+        ObjectWriter writer = objectMapper.writer(FieldSelection.of(fields))
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = writer.createGenerator(out)) {
+                generator.writeStartArray();
+                String cursor = null;
+                do {
+                    CursorPage<Book> chunk = bookService.scrollBooks(cursor, CursorPage.MAX_SIZE, null);
+                    for (Book book : chunk.getContent()) {
+                        writer.writeValue(generator, BookSummary.of(book));
+                    }
+                    generator.flush();
+                    cursor = chunk.getNextCursor();
+                } while (cursor != null);
+                generator.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
     }
 
     @GetMapping("/genre/{genreId}")
     @Operation(summary = "Get books by genre")
-    public ResponseEntity<Page<Book>> getBooksByGenre(
+    public ResponseEntity<PageResponse<BookSummary>> getBooksByGenre(
             @PathVariable Long genreId,
-            Pageable pageable) {
-        return ResponseEntity.ok(bookService.findByGenre(genreId, pageable));
+            Pageable pageable,
+            WebRequest request) {
+        return conditionalResponses.catalog(request, "books",
+                () -> PageResponse.of(bookService.findByGenre(genreId, pageable), BookSummary::of));
+    }
+
+    @GetMapping("/genre/{genreId}/scroll")
+    @Operation(summary = "Get books by genre with cursor pagination")
+    public ResponseEntity<CursorPage<BookSummary>> scrollBooksByGenre(
+            @PathVariable Long genreId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            WebRequest request) {
+        return conditionalResponses.catalog(request, "books",
+                () -> bookService.scrollByGenre(genreId, cursor, size).map(BookSummary::of));
     }
 
     @GetMapping("/author/{authorId}")
     @Operation(summary = "Get books by author")
-    public ResponseEntity<Page<Book>> getBooksByAuthor(
+    public ResponseEntity<PageResponse<BookSummary>> getBooksByAuthor(
+            @PathVariable Long authorId,
+            Pageable pageable,
+            WebRequest request) {
+        return conditionalResponses.catalog(request, "books",
+                () -> PageResponse.of(bookService.findByAuthor(authorId, pageable), BookSummary::of));
+    }
+
+    @GetMapping("/author/{authorId}/scroll")
+    @Operation(summary = "Get books by author with cursor pagination")
+    public ResponseEntity<CursorPage<BookSummary>> scrollBooksByAuthor(
             @PathVariable Long authorId,
-            Pageable pageable) {
-        return ResponseEntity.ok(bookService.findByAuthor(authorId, pageable));
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            WebRequest request) {
+        return conditionalResponses.catalog(request, "books",
+                () -> bookService.scrollByAuthor(authorId, cursor, size).map(BookSummary::of));
     }
 
     @GetMapping("/title")
     @Operation(summary = "Get books by title")
-    public ResponseEntity<Page<Book>> getBooksByTitle(
+    public ResponseEntity<PageResponse<BookSummary>> getBooksByTitle(
             @RequestParam String title,
-            Pageable pageable) {
-        return ResponseEntity.ok(bookService.findByTitle(title, pageable));
+            Pageable pageable,
+            WebRequest request) {
+        return conditionalResponses.catalog(request, "books",
+                () -> PageResponse.of(bookService.findByTitle(title, pageable), BookSummary::of));
     }
 } 
\ No newline at end of file
@@ -0,0 +1,58 @@
+package com.example.library.controller;
+
+import com.example.library.service.CatalogVersionService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Answers catalog reads with 304 Not Modified when the client's copy is current. Validators are
+ * looked up before the body is built, so a matching request never loads or serializes entities.
+ * A null return tells Spring MVC the 304 has already been written.
+ */
+@Component
+@RequiredArgsConstructor
+public class ConditionalResponses {
+
+    // Clients may keep a copy but must revalidate; private because some responses sit behind authentication
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    private final CatalogVersionService catalogVersionService;
+
+    /**
+     * For a single resource, validated by when it was last written. Missing resources fall through to
+     * the body, which reports the 404.
+     */
+    public <T> ResponseEntity<T> entity(WebRequest request, String resource, Long id,
+                                        Optional<LocalDateTime> lastModified, Supplier<T> body) {
+        if (lastModified.isPresent()) {
+            long millis = lastModified.get().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            if (request.checkNotModified(weakTag(resource + "-" + id + "-" + millis), millis)) {
+                return null;
+            }
+        }
+        return ResponseEntity.ok().cacheControl(REVALIDATE).body(body.get());
+    }
+
+    /**
+     * For lists and searches, validated by the catalog version, since any write can change a page.
+     */
+    public <T> ResponseEntity<T> catalog(WebRequest request, String resource, Supplier<T> body) {
+        if (request.checkNotModified(weakTag(resource + "-v" + catalogVersionService.currentVersion()))) {
+            return null;
+        }
+        return ResponseEntity.ok().cacheControl(REVALIDATE).body(body.get());
+    }
+
+    // Weak, because the tag names a version of the data rather than the exact bytes written
+    private static String weakTag(String value) {
+        return "W/\"" + value + "\"";
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.library.controller;
+
+import com.example.library.dto.CoverVariant;
+import com.example.library.service.CoverImageService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+@RestController
+@RequestMapping("/uploads/covers")
+@RequiredArgsConstructor
+@Tag(name = "Cover Controller", description = "APIs for serving book cover images")
+public class CoverController {
+
+    private static final Pattern CONTENT_ADDRESSED = Pattern.compile("[0-9a-f]{64}\\..+");
+
+    private static final CacheControl IMMUTABLE = CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable();
+    private static final CacheControl LEGACY = CacheControl.maxAge(1, TimeUnit.HOURS).cachePublic();
+    // Served in place of a variant that has not been generated yet
+    private static final CacheControl FALLBACK = CacheControl.maxAge(1, TimeUnit.MINUTES).cachePublic();
+
+    private final CoverImageService coverImageService;
+
+    @GetMapping("/{fileName:.+}")
+    @Operation(summary = "Get a cover image or one of its variants")
+    public void getCover(@PathVariable String fileName, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        if (fileName.startsWith(".") || fileName.contains("/") || fileName.contains("\\")) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        Path file = coverImageService.getStorageLocation().resolve(fileName);
+        CacheControl cacheControl = CONTENT_ADDRESSED.matcher(fileName).matches() ? IMMUTABLE : LEGACY;
+        if (!Files.isRegularFile(file)) {
+            String originalName = originalOf(fileName);
+            file = originalName != null ? coverImageService.getStorageLocation().resolve(originalName) : null;
+            if (file == null || !Files.isRegularFile(file)) {
+                response.sendError(HttpServletResponse.SC_NOT_FOUND);
+                return;
+            }
+            cacheControl = FALLBACK;
+        }
+
+        long length = Files.size(file);
+        long lastModified = Files.getLastModifiedTime(file).toMillis();
+        String etag = etagOf(file.getFileName().toString(), length, lastModified);
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+        if (new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) {
+            return;
+        }
+
+        MediaType contentType = MediaTypeFactory.getMediaType(file.getFileName().toString())
+                .orElse(MediaType.APPLICATION_OCTET_STREAM);
+        response.setContentType(contentType.toString());
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        long start = 0;
+        long end = length - 1;
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (rangeHeader != null && length > 0 && (ifRange == null || ifRange.equals(etag))) {
+            try {
+                List<HttpRange> ranges = HttpRange.parseRanges(rangeHeader);
+                // Multipart byte ranges are not worth supporting for images; serve the full file instead
+                if (ranges.size() == 1) {
+                    start = ranges.get(0).getRangeStart(length);
+                    end = ranges.get(0).getRangeEnd(length);
+                    response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+                }
+            } catch (IllegalArgumentException ex) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+        }
+
+        long count = length == 0 ? 0 : end - start + 1;
+        response.setContentLengthLong(count);
+        if ("HEAD".equals(request.getMethod())) {
+            return;
+        }
+
+        if (count > 0) {
+            // Covers are small, so a buffered copy is enough. The container's output stream copies through
+            // heap buffers anyway, so a FileChannel.transferTo into it would save nothing
+            try (InputStream in = Files.newInputStream(file)) {
+                StreamUtils.copyRange(in, response.getOutputStream(), start, end);
+            }
+        }
+    }
+
+    private static String originalOf(String fileName) {
+        for (CoverVariant variant : CoverVariant.values()) {
+            String suffix = variant.fileName("");
+            if (fileName.endsWith(suffix) && fileName.length() > suffix.length()) {
+                return fileName.substring(0, fileName.length() - suffix.length());
+            }
+        }
+        return null;
+    }
+
+    private static String etagOf(String fileName, long length, long lastModified) {
+        if (CONTENT_ADDRESSED.matcher(fileName).matches()) {
+            // The name already is the content hash; variants are derived from it deterministically
+            return "\"" + fileName.replace('.', '-') + "\"";
+        }
+        return "\"" + Long.toHexString(length) + "-" + Long.toHexString(lastModified) + "\"";
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.library.controller;
+
+import com.example.library.service.CoverGarbageCollector;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/covers")
+@RequiredArgsConstructor
+@Tag(name = "Cover Maintenance Controller", description = "APIs for maintaining cover storage")
+public class CoverMaintenanceController {
+
+    private final CoverGarbageCollector coverGarbageCollector;
+
+    @PostMapping("/gc")
+    @Operation(summary = "Delete cover files no book references")
+    public ResponseEntity<CoverGarbageCollector.Report> collectGarbage(
+            @RequestParam(defaultValue = "true") boolean dryRun) {
+        return ResponseEntity.ok(coverGarbageCollector.collect(dryRun));
+    }
+}
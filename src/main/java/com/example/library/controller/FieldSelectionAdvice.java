@@ -0,0 +1,30 @@
+package com.example.library.controller;
+
+import com.example.library.dto.FieldSelection;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.AbstractMappingJacksonResponseBodyAdvice;
+
+/**
+ * Applies the {@code fields} request parameter to any JSON response, see {@link FieldSelection}.
+ */
+@RestControllerAdvice
+public class FieldSelectionAdvice extends AbstractMappingJacksonResponseBodyAdvice {
+
+    @Override
+    protected void beforeBodyWriteInternal(MappingJacksonValue bodyContainer, MediaType contentType,
+                                           MethodParameter returnType, ServerHttpRequest request,
+                                           ServerHttpResponse response) {
+        if (request instanceof ServletServerHttpRequest servletRequest) {
+            String fields = servletRequest.getServletRequest().getParameter(FieldSelection.PARAMETER);
+            if (fields != null) {
+                bodyContainer.setFilters(FieldSelection.of(fields));
+            }
+        }
+    }
+}
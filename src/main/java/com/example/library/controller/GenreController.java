@@ -1,15 +1,18 @@
 package com.example.library.controller;
 
+import com.example.library.dto.CursorPage;
+import com.example.library.dto.GenreSummary;
+import com.example.library.dto.PageResponse;
 import com.example.library.entity.Genre;
 import com.example.library.service.GenreService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -20,19 +23,20 @@ import java.util.List;
 public class GenreController {
 
     private final GenreService genreService;
+    private final ConditionalResponses conditionalResponses;
 
     @PostMapping
     @Operation(summary = "Create a new genre")
-    public ResponseEntity<Genre> createGenre(@RequestBody Genre genre) {
-        return new ResponseEntity<>(genreService.createGenre(genre), HttpStatus.CREATED);
+    public ResponseEntity<GenreSummary> createGenre(@RequestBody Genre genre) {
+        return new ResponseEntity<>(GenreSummary.of(genreService.createGenre(genre)), HttpStatus.CREATED);
     }
 
     @PutMapping("/{id}")
     @Operation(summary = "Update an existing genre")
-    public ResponseEntity<Genre> updateGenre(
+    public ResponseEntity<GenreSummary> updateGenre(
             @PathVariable Long id,
             @RequestBody Genre genre) {
-        return ResponseEntity.ok(genreService.updateGenre(id, genre));
+        return ResponseEntity.ok(GenreSummary.of(genreService.updateGenre(id, genre)));
     }
 
     @DeleteMapping("/{id}")
@@ -44,27 +48,42 @@ public class GenreController {
 
     @GetMapping("/{id}")
     @Operation(summary = "Get a genre by ID")
-    public ResponseEntity<Genre> getGenreById(@PathVariable Long id) {
-        return ResponseEntity.ok(genreService.getGenreById(id));
+    public ResponseEntity<GenreSummary> getGenreById(@PathVariable Long id, WebRequest request) {
+        return conditionalResponses.entity(request, "genre", id, genreService.getLastModified(id),
+                () -> GenreSummary.of(genreService.getGenreById(id)));
     }
 
     @GetMapping
     @Operation(summary = "Get all genres with pagination")
-    public ResponseEntity<Page<Genre>> getAllGenres(Pageable pageable) {
-        return ResponseEntity.ok(genreService.getAllGenres(pageable));
+    public ResponseEntity<PageResponse<GenreSummary>> getAllGenres(Pageable pageable, WebRequest request) {
+        return conditionalResponses.catalog(request, "genres",
+                () -> PageResponse.of(genreService.getAllGenres(pageable), GenreSummary::of));
     }
 
     @GetMapping("/all")
     @Operation(summary = "Get all genres")
-    public ResponseEntity<List<Genre>> getAllGenres() {
-        return ResponseEntity.ok(genreService.findAll());
+    public ResponseEntity<List<GenreSummary>> getAllGenres(WebRequest request) {
+        return conditionalResponses.catalog(request, "genres",
+                () -> genreService.findAll().stream().map(GenreSummary::of).toList());
+    }
+
+    @GetMapping("/scroll")
+    @Operation(summary = "Get all genres with cursor pagination")
+    public ResponseEntity<CursorPage<GenreSummary>> scrollGenres(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            WebRequest request) {
+        return conditionalResponses.catalog(request, "genres",
+                () -> genreService.scrollGenres(cursor, size).map(GenreSummary::of));
     }
 
     @GetMapping("/search")
     @Operation(summary = "Search genres")
-    public ResponseEntity<Page<Genre>> searchGenres(
+    public ResponseEntity<PageResponse<GenreSummary>> searchGenres(
             @RequestParam String searchTerm,
-            Pageable pageable) {
-        return ResponseEntity.ok(genreService.searchGenres(searchTerm, pageable));
+            Pageable pageable,
+            WebRequest request) {
+        return conditionalResponses.catalog(request, "genres",
+                () -> PageResponse.of(genreService.searchGenres(searchTerm, pageable), GenreSummary::of));
     }
 } 
\ No newline at end of file
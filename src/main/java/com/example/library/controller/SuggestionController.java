@@ -0,0 +1,31 @@
+package com.example.library.controller;
+
+import com.example.library.dto.Suggestion;
+import com.example.library.service.SuggestionService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/suggestions")
+@RequiredArgsConstructor
+@Tag(name = "Suggestion Controller", description = "Typeahead for the catalog search box")
+public class SuggestionController {
+
+    private final SuggestionService suggestionService;
+
+    @GetMapping
+    @Operation(summary = "Complete a partly typed book title, author name or genre name")
+    public ResponseEntity<List<Suggestion>> suggest(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(suggestionService.suggest(query, limit));
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.library.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends connections for read-only transactions to a healthy replica and everything else to the
+ * primary. Replicas are probed on a schedule; one that fails the probe or lags more
+ * than the allowed maximum is skipped until a later probe succeeds. A user who wrote within the
+ * sticky window keeps reading from the primary, so they see their own writes despite replica lag.
+ * <p>
+ * The lag query returns the lag in seconds in its first column, or, like {@code SHOW REPLICA STATUS},
+ * in a {@code Seconds_Behind_Source} (or {@code Seconds_Behind_Master}) column.
+ * <p>
+ * The routing decision needs the transaction's read-only flag, which is only set after the
+ * transaction manager has asked for a connection, so this must sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARY = "primary";
+
+    private static final List<String> LAG_COLUMNS = List.of("Seconds_Behind_Source", "Seconds_Behind_Master");
+
+    // Beyond this many tracked writers, expired entries are purged on the next write
+    private static final int RECENT_WRITERS_PURGE_THRESHOLD = 10_000;
+
+    private final List<Replica> replicas;
+    private final Duration maxLag;
+    private final Duration stickyWindow;
+    private final String lagQuery;
+    private final Map<String, Long> recentWriters = new ConcurrentHashMap<>();
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, Duration maxLag,
+                                    Duration stickyWindow, String lagQuery) {
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        this.replicas = new LinkedHashMap<>(replicas).entrySet().stream()
+                .map(entry -> new Replica(entry.getKey(), entry.getValue()))
+                .toList();
+        this.maxLag = maxLag;
+        this.stickyWindow = stickyWindow;
+        this.lagQuery = lagQuery;
+        if (!StringUtils.hasText(lagQuery)) {
+            log.warn("No app.datasource.replica.lag-query is set, so replica lag is not checked and reads may return stale data");
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String user = currentUser();
+        long now = System.currentTimeMillis();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (user != null && TransactionSynchronizationManager.isActualTransactionActive()) {
+                recordWrite(user, now);
+            }
+            return PRIMARY;
+        }
+        if (user != null && wroteRecently(user, now)) {
+            return PRIMARY;
+        }
+
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.available) {
+                return replica.name;
+            }
+        }
+        return PRIMARY;
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.health-check-interval:PT2S}")
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            boolean available = probe(replica);
+            if (available != replica.available) {
+                if (available) {
+                    log.info("Replica {} is available again", replica.name);
+                } else {
+                    log.warn("Replica {} is unavailable or lagging, reads fall back to other replicas or the primary", replica.name);
+                }
+            }
+            replica.available = available;
+        }
+    }
+
+    public Map<String, Boolean> getReplicaAvailability() {
+        Map<String, Boolean> availability = new LinkedHashMap<>();
+        replicas.forEach(replica -> availability.put(replica.name, replica.available));
+        return availability;
+    }
+
+    private boolean probe(Replica replica) {
+        try (Connection connection = replica.dataSource.getConnection()) {
+            if (!connection.isValid(2)) {
+                return false;
+            }
+            if (!StringUtils.hasText(lagQuery)) {
+                return true;
+            }
+            try (Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery(lagQuery)) {
+                if (!resultSet.next()) {
+                    return false;
+                }
+                double lagSeconds = resultSet.getDouble(lagColumn(resultSet.getMetaData()));
+                // NULL means replication is not running, so the lag is unknown
+                return !resultSet.wasNull() && lagSeconds * 1000 <= maxLag.toMillis();
+            }
+        } catch (SQLException ex) {
+            log.debug("Replica {} probe failed", replica.name, ex);
+            return false;
+        }
+    }
+
+    private static int lagColumn(ResultSetMetaData metaData) throws SQLException {
+        for (int column = 1; column <= metaData.getColumnCount(); column++) {
+            if (LAG_COLUMNS.stream().anyMatch(metaData.getColumnLabel(column)::equalsIgnoreCase)) {
+                return column;
+            }
+        }
+        return 1;
+    }
+
+    private void recordWrite(String user, long now) {
+        recentWriters.put(user, now);
+        if (recentWriters.size() > RECENT_WRITERS_PURGE_THRESHOLD) {
+            recentWriters.values().removeIf(writtenAt -> now - writtenAt > stickyWindow.toMillis());
+        }
+    }
+
+    private boolean wroteRecently(String user, long now) {
+        Long writtenAt = recentWriters.get(user);
+        return writtenAt != null && now - writtenAt <= stickyWindow.toMillis();
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+
+    private static final class Replica {
+        private final String name;
+        private final DataSource dataSource;
+        private volatile boolean available;
+
+        private Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.library.dto;
+
+import com.example.library.entity.Author;
+import com.fasterxml.jackson.annotation.JsonFilter;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+@JsonFilter(FieldSelection.FILTER)
+public class AuthorSummary {
+    private Long id;
+    private String name;
+    private String description;
+
+    public static AuthorSummary of(Author author) {
+        return new AuthorSummary(author.getId(), author.getName(), author.getDescription());
+    }
+}
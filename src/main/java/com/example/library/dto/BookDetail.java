@@ -0,0 +1,30 @@
+package com.example.library.dto;
+
+import com.example.library.entity.Book;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class BookDetail {
+    private Long id;
+    private String title;
+    private String description;
+    private String isbn;
+    private LocalDateTime publishDate;
+    private String coverImagePath;
+    private String coverThumbnailPath;
+    private NamedRef genre;
+    private List<NamedRef> authors;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    public static BookDetail of(Book book) {
+        return new BookDetail(book.getId(), book.getTitle(), book.getDescription(), book.getIsbn(),
+                book.getPublishDate(), book.getCoverImagePath(), CoverVariant.thumbnailOf(book.getCoverImagePath()),
+                NamedRef.of(book.getGenre()), BookSummary.authors(book), book.getCreatedAt(), book.getUpdatedAt());
+    }
+}
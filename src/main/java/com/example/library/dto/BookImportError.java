@@ -0,0 +1,12 @@
+package com.example.library.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class BookImportError {
+    private long line;
+    private String isbn;
+    private String message;
+}
@@ -0,0 +1,15 @@
+package com.example.library.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class BookImportResult {
+    private long processed;
+    private long imported;
+    private long failed;
+    private boolean errorsTruncated;
+    private List<BookImportError> errors = new ArrayList<>();
+}
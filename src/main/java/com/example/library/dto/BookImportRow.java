@@ -0,0 +1,13 @@
+package com.example.library.dto;
+
+import lombok.Data;
+
+@Data
+public class BookImportRow {
+    private String title;
+    private String description;
+    private String isbn;
+    private String author;
+    private String genre;
+    private Integer publishedYear;
+}
@@ -0,0 +1,41 @@
+package com.example.library.dto;
+
+import com.example.library.entity.Book;
+import com.fasterxml.jackson.annotation.JsonFilter;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A book as listed in pages, scrolls and exports. Leaves out the description, which is up to
+ * 1000 characters and only shown on the detail view.
+ */
+@Data
+@AllArgsConstructor
+@JsonFilter(FieldSelection.FILTER)
+public class BookSummary {
+    private Long id;
+    private String title;
+    private String isbn;
+    private LocalDateTime publishDate;
+    private String coverImagePath;
+    private String coverThumbnailPath;
+    private NamedRef genre;
+    private List<NamedRef> authors;
+
+    public static BookSummary of(Book book) {
+        return new BookSummary(book.getId(), book.getTitle(), book.getIsbn(), book.getPublishDate(),
+                book.getCoverImagePath(), CoverVariant.thumbnailOf(book.getCoverImagePath()), NamedRef.of(book.getGenre()),
+                authors(book));
+    }
+
+    static List<NamedRef> authors(Book book) {
+        return book.getAuthors().stream()
+                .map(NamedRef::of)
+                .sorted(Comparator.comparing(NamedRef::getName))
+                .toList();
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.library.dto;
+
+public enum CoverVariant {
+    THUMB("thumb", 160),
+    MEDIUM("medium", 480);
+
+    private final String suffix;
+    private final int width;
+
+    CoverVariant(String suffix, int width) {
+        this.suffix = suffix;
+        this.width = width;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    // Variants are named after their original so they sort next to it: <original>.<suffix>.jpg
+    public String fileName(String originalFileName) {
+        return originalFileName + "." + suffix + ".jpg";
+    }
+
+    // Small variant used by list views; generated asynchronously after upload
+    public static String thumbnailOf(String coverImagePath) {
+        return coverImagePath != null ? THUMB.fileName(coverImagePath) : null;
+    }
+}
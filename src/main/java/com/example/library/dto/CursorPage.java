@@ -0,0 +1,74 @@
+package com.example.library.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One slice of a keyset-paginated listing. The cursor is an opaque token holding the
+ * sort key of the last row, so the next slice is a range seek instead of an OFFSET scan
+ * and no COUNT query is needed.
+ */
+@Data
+@AllArgsConstructor
+public class CursorPage<T> {
+
+    public static final int MAX_SIZE = 100;
+
+    private List<T> content;
+    private String nextCursor;
+    private boolean hasNext;
+
+    public static <T> CursorPage<T> of(List<T> content, boolean hasNext,
+                                       Function<T, Long> idOf, Function<T, String> sortValueOf) {
+        String nextCursor = null;
+        if (hasNext && !content.isEmpty()) {
+            T last = content.get(content.size() - 1);
+            nextCursor = encodeCursor(new Position(idOf.apply(last), sortValueOf != null ? sortValueOf.apply(last) : null));
+        }
+        return new CursorPage<>(content, nextCursor, hasNext);
+    }
+
+    public <R> CursorPage<R> map(Function<T, R> mapper) {
+        return new CursorPage<>(content.stream().map(mapper).toList(), nextCursor, hasNext);
+    }
+
+    // First slice of the requested size; the repository query itself supplies the seek predicate
+    public static Pageable sliceRequest(int size, Sort sort) {
+        return PageRequest.of(0, Math.max(1, Math.min(size, MAX_SIZE)), sort);
+    }
+
+    public static String encodeCursor(Position position) {
+        String raw = position.value() != null ? position.id() + ":" + position.value() : String.valueOf(position.id());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns the position encoded in the cursor, or {@code null} for the first slice.
+     */
+    public static Position decodeCursor(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            if (separator < 0) {
+                return new Position(Long.parseLong(raw), null);
+            }
+            return new Position(Long.parseLong(raw.substring(0, separator)), raw.substring(separator + 1));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Invalid cursor", ex);
+        }
+    }
+
+    public record Position(Long id, String value) {
+    }
+}
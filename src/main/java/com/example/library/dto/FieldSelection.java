@@ -0,0 +1,44 @@
+package com.example.library.dto;
+
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Sparse fieldsets for list rows: {@code ?fields=id,title,authors} serializes only those properties
+ * of every DTO annotated with {@code @JsonFilter(FieldSelection.FILTER)}. The envelope is never filtered.
+ */
+public final class FieldSelection {
+
+    public static final String FILTER = "fieldSelection";
+    public static final String PARAMETER = "fields";
+
+    private static final FilterProvider ALL = new SimpleFilterProvider()
+            .addFilter(FILTER, SimpleBeanPropertyFilter.serializeAll());
+
+    private FieldSelection() {
+    }
+
+    // Default for every ObjectMapper that serializes the DTOs, so rows are complete unless a selection is given
+    public static FilterProvider all() {
+        return ALL;
+    }
+
+    public static FilterProvider of(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+        Set<String> selected = Arrays.stream(fields.split(","))
+                .map(String::trim)
+                .filter(field -> !field.isEmpty())
+                .collect(Collectors.toCollection(HashSet::new));
+        // Rows stay addressable whatever was selected
+        selected.add("id");
+        return new SimpleFilterProvider().addFilter(FILTER, SimpleBeanPropertyFilter.filterOutAllExcept(selected));
+    }
+}
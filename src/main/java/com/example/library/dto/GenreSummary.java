@@ -0,0 +1,19 @@
+package com.example.library.dto;
+
+import com.example.library.entity.Genre;
+import com.fasterxml.jackson.annotation.JsonFilter;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+@JsonFilter(FieldSelection.FILTER)
+public class GenreSummary {
+    private Long id;
+    private String name;
+    private String description;
+
+    public static GenreSummary of(Genre genre) {
+        return new GenreSummary(genre.getId(), genre.getName(), genre.getDescription());
+    }
+}
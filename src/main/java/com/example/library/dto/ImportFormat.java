@@ -0,0 +1,6 @@
+package com.example.library.dto;
+
+public enum ImportFormat {
+    CSV,
+    JSON_LINES
+}
@@ -0,0 +1,24 @@
+package com.example.library.dto;
+
+import com.example.library.entity.Author;
+import com.example.library.entity.Genre;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Author or genre as embedded in a book: enough to display and link it, nothing that needs loading.
+ */
+@Data
+@AllArgsConstructor
+public class NamedRef {
+    private Long id;
+    private String name;
+
+    public static NamedRef of(Author author) {
+        return new NamedRef(author.getId(), author.getName());
+    }
+
+    public static NamedRef of(Genre genre) {
+        return genre != null ? new NamedRef(genre.getId(), genre.getName()) : null;
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.library.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Offset page as sent to clients. Keeps the field names of Spring's {@code Page}, including
+ * {@code last}, which the frontend reads to stop paging, without the pageable and sort metadata
+ * serialized for every response.
+ */
+@Data
+@AllArgsConstructor
+public class PageResponse<T> {
+    private List<T> content;
+    private int number;
+    private int size;
+    private long totalElements;
+    private int totalPages;
+    private boolean last;
+
+    public static <E, T> PageResponse<T> of(Page<E> page, Function<E, T> mapper) {
+        return new PageResponse<>(page.getContent().stream().map(mapper).toList(), page.getNumber(),
+                page.getSize(), page.getTotalElements(), page.getTotalPages(), page.isLast());
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.library.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * One typeahead completion: a book title, author name or genre name, with the id to navigate to.
+ */
+@Data
+@AllArgsConstructor
+public class Suggestion {
+    private SuggestionType type;
+    private Long id;
+    private String text;
+}
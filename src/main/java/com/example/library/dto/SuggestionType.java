@@ -0,0 +1,7 @@
+package com.example.library.dto;
+
+public enum SuggestionType {
+    BOOK,
+    AUTHOR,
+    GENRE
+}
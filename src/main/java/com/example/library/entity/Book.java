@@ -11,7 +11,15 @@ import java.util.Set;
 
 @Data
 @Entity
-@Table(name = "books")
+@Table(name = "books", indexes = @Index(name = "idx_books_cover_image_path", columnList = "cover_image_path"))
+@NamedEntityGraphs({
+    // List and search rows: the genre is joined, authors are batch-loaded separately per page
+    @NamedEntityGraph(name = "Book.summary", attributeNodes = @NamedAttributeNode("genre")),
+    @NamedEntityGraph(name = "Book.detail", attributeNodes = {
+        @NamedAttributeNode("genre"),
+        @NamedAttributeNode("authors")
+    })
+})
 public class Book {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -0,0 +1,22 @@
+package com.example.library.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+/**
+ * Single-row counter bumped after every committed catalog change. List responses use it as
+ * their ETag, so revalidation costs one primary-key lookup instead of re-running the page query.
+ */
+@Data
+@Entity
+@Table(name = "catalog_version")
+public class CatalogVersion {
+
+    public static final Long ID = 1L;
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private long version;
+}
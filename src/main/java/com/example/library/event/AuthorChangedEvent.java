@@ -0,0 +1,16 @@
+package com.example.library.event;
+
+import com.example.library.entity.Author;
+import lombok.Getter;
+
+@Getter
+public class AuthorChangedEvent extends CatalogChangeEvent {
+
+    // Null for DELETED events
+    private final Author author;
+
+    public AuthorChangedEvent(ChangeType type, Long id, Author author) {
+        super(type, id);
+        this.author = author;
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.library.event;
+
+import com.example.library.entity.Book;
+import lombok.Getter;
+
+@Getter
+public class BookChangedEvent extends CatalogChangeEvent {
+
+    // Null for DELETED events
+    private final Book book;
+
+    public BookChangedEvent(ChangeType type, Long id, Book book) {
+        super(type, id);
+        this.book = book;
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.library.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public abstract class CatalogChangeEvent {
+    private final ChangeType type;
+    private final Long id;
+}
@@ -0,0 +1,7 @@
+package com.example.library.event;
+
+public enum ChangeType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
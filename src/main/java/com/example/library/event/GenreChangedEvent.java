@@ -0,0 +1,16 @@
+package com.example.library.event;
+
+import com.example.library.entity.Genre;
+import lombok.Getter;
+
+@Getter
+public class GenreChangedEvent extends CatalogChangeEvent {
+
+    // Null for DELETED events
+    private final Genre genre;
+
+    public GenreChangedEvent(ChangeType type, Long id, Genre genre) {
+        super(type, id);
+        this.genre = genre;
+    }
+}
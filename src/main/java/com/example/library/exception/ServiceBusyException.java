@@ -0,0 +1,11 @@
+package com.example.library.exception;
+
+/**
+ * Work was refused because a bounded resource is saturated; answered with 503 and a short Retry-After.
+ */
+public class ServiceBusyException extends RuntimeException {
+
+    public ServiceBusyException(String message) {
+        super(message);
+    }
+}
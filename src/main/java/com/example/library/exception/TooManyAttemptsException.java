@@ -0,0 +1,17 @@
+package com.example.library.exception;
+
+import lombok.Getter;
+
+/**
+ * A client or account went over its attempt limit; answered with 429 and a Retry-After.
+ */
+@Getter
+public class TooManyAttemptsException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public TooManyAttemptsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,302 @@
+package com.example.library.feed;
+
+import com.example.library.event.AuthorChangedEvent;
+import com.example.library.event.BookChangedEvent;
+import com.example.library.event.CatalogChangeEvent;
+import com.example.library.event.ChangeType;
+import com.example.library.event.GenreChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.jetty.websocket.api.Callback;
+import org.eclipse.jetty.websocket.api.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.PingMessage;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.adapter.NativeWebSocketSession;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pushes committed book, author and genre changes to WebSocket clients at {@code /ws/catalog}, so
+ * they refresh when something changed instead of polling.
+ * <p>
+ * Changes are coalesced per entity and published as one batch per flush interval. Each batch is
+ * serialized once and shared by every connection that is caught up. A connection has at most one
+ * send in flight, written with Jetty's asynchronous API so no thread waits for the client. A slow
+ * client skips flushes and later gets the batches it missed merged into one message, or a
+ * {@code resync} once they have left the bounded history. A client that has not taken a message
+ * within the send timeout is disconnected. An idle connection holds no thread and no queue, only
+ * its session and a few fields here.
+ */
+@Slf4j
+@Component
+public class CatalogFeed extends TextWebSocketHandler {
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.feed.max-connections:10000}")
+    private int maxConnections;
+
+    @Value("${app.feed.max-batch-size:1000}")
+    private int maxBatchSize;
+
+    @Value("${app.feed.history-size:64}")
+    private int historySize;
+
+    // Below Jetty's WebSocket idle timeout, so quiet connections are not closed
+    @Value("${app.feed.heartbeat-interval:25000}")
+    private long heartbeatInterval;
+
+    @Value("${app.feed.send-timeout:10000}")
+    private long sendTimeout;
+
+    private final Map<String, Subscriber> subscribers = new ConcurrentHashMap<>();
+
+    // Changes committed since the last flush, guarded by itself
+    private final Map<String, Change> collecting = new LinkedHashMap<>();
+    private boolean overflowed;
+
+    // Published batches, oldest first; only the flushing thread touches it
+    private final Deque<Batch> history = new ArrayDeque<>();
+    private volatile long sequence;
+
+    public CatalogFeed(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public int connections() {
+        return subscribers.size();
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) throws IOException {
+        if (subscribers.size() >= maxConnections) {
+            session.close(CloseStatus.SERVICE_OVERLOAD);
+            return;
+        }
+        Session connection = WebSocketSessionDecorator.unwrap(session) instanceof NativeWebSocketSession jetty
+                ? jetty.getNativeSession(Session.class) : null;
+        if (connection == null) {
+            log.warn("Catalog feed needs Jetty WebSocket sessions, closing {}", session.getId());
+            session.close(CloseStatus.SERVER_ERROR);
+            return;
+        }
+        subscribers.put(session.getId(), new Subscriber(session.getId(), connection, sequence,
+                System.currentTimeMillis()));
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        subscribers.remove(session.getId());
+    }
+
+    @Override
+    public void handleTransportError(WebSocketSession session, Throwable exception) {
+        log.debug("Catalog feed connection {} failed", session.getId(), exception);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChange(CatalogChangeEvent event) {
+        String entity = entityOf(event);
+        if (entity == null || subscribers.isEmpty()) {
+            return;
+        }
+        synchronized (collecting) {
+            if (overflowed) {
+                return;
+            }
+            coalesce(collecting, new Change(entity, event.getType(), event.getId()));
+            // Past this size listing the changes costs clients more than refetching
+            if (collecting.size() > maxBatchSize) {
+                overflowed = true;
+                collecting.clear();
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.feed.flush-interval:250}")
+    public void flush() {
+        publishCollected();
+        long now = System.currentTimeMillis();
+        for (Subscriber subscriber : subscribers.values()) {
+            if (subscriber.sending.get()) {
+                if (now - subscriber.lastSentAt >= sendTimeout) {
+                    drop(subscriber);
+                }
+                continue;
+            }
+            WebSocketMessage<?> message = nextMessage(subscriber, now);
+            if (message != null) {
+                send(subscriber, message, now);
+            }
+        }
+    }
+
+    private void publishCollected() {
+        List<Change> changes;
+        synchronized (collecting) {
+            if (collecting.isEmpty() && !overflowed) {
+                return;
+            }
+            changes = overflowed ? null : new ArrayList<>(collecting.values());
+            collecting.clear();
+            overflowed = false;
+        }
+        long next = sequence + 1;
+        TextMessage message = changes != null ? changesMessage(next, changes) : resyncMessage(next);
+        history.addLast(new Batch(next, changes, message));
+        while (history.size() > historySize) {
+            history.removeFirst();
+        }
+        sequence = next;
+    }
+
+    private WebSocketMessage<?> nextMessage(Subscriber subscriber, long now) {
+        long current = sequence;
+        if (subscriber.lastSequence < current) {
+            WebSocketMessage<?> message = subscriber.lastSequence == current - 1
+                    ? history.getLast().message()
+                    : catchUp(subscriber.lastSequence, current);
+            subscriber.lastSequence = current;
+            return message;
+        }
+        if (now - subscriber.lastSentAt >= heartbeatInterval) {
+            return new PingMessage();
+        }
+        return null;
+    }
+
+    private TextMessage catchUp(long lastSequence, long current) {
+        if (history.isEmpty() || history.getFirst().sequence() > lastSequence + 1) {
+            return resyncMessage(current);
+        }
+        Map<String, Change> merged = new LinkedHashMap<>();
+        for (Batch batch : history) {
+            if (batch.sequence() <= lastSequence) {
+                continue;
+            }
+            if (batch.changes() == null) {
+                return resyncMessage(current);
+            }
+            batch.changes().forEach(change -> coalesce(merged, change));
+        }
+        return changesMessage(current, merged.values());
+    }
+
+    private void send(Subscriber subscriber, WebSocketMessage<?> message, long now) {
+        subscriber.sending.set(true);
+        subscriber.lastSentAt = now;
+        Callback done = Callback.from(() -> subscriber.sending.set(false), ex -> {
+            log.debug("Could not send to catalog feed connection {}", subscriber.id, ex);
+            subscriber.sending.set(false);
+        });
+        try {
+            if (message instanceof TextMessage text) {
+                subscriber.connection.sendText(text.getPayload(), done);
+            } else {
+                subscriber.connection.sendPing(ByteBuffer.allocate(0), done);
+            }
+        } catch (RuntimeException ex) {
+            done.fail(ex);
+        }
+    }
+
+    // A close handshake would queue behind the stuck message, so the connection is cut instead
+    private void drop(Subscriber subscriber) {
+        log.debug("Catalog feed connection {} took no message for {} ms, disconnecting", subscriber.id, sendTimeout);
+        subscribers.remove(subscriber.id);
+        subscriber.connection.disconnect();
+    }
+
+    /**
+     * Folds a change into the pending ones for the same entity: a create followed by updates stays a
+     * create, and a create followed by a delete disappears.
+     */
+    static void coalesce(Map<String, Change> changes, Change change) {
+        String key = change.entity() + ":" + change.id();
+        Change previous = changes.get(key);
+        if (previous == null || previous.change() != ChangeType.CREATED) {
+            changes.put(key, change);
+        } else if (change.change() == ChangeType.DELETED) {
+            changes.remove(key);
+        }
+    }
+
+    private static String entityOf(CatalogChangeEvent event) {
+        if (event instanceof BookChangedEvent) {
+            return "book";
+        }
+        if (event instanceof AuthorChangedEvent) {
+            return "author";
+        }
+        if (event instanceof GenreChangedEvent) {
+            return "genre";
+        }
+        return null;
+    }
+
+    private TextMessage changesMessage(long sequence, Collection<Change> changes) {
+        return serialize(new ChangesMessage("changes", sequence, changes));
+    }
+
+    private TextMessage resyncMessage(long sequence) {
+        return serialize(new ResyncMessage("resync", sequence));
+    }
+
+    private TextMessage serialize(Object payload) {
+        try {
+            return new TextMessage(objectMapper.writeValueAsString(payload));
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize catalog feed message", ex);
+        }
+    }
+
+    record Change(String entity, ChangeType change, Long id) {
+    }
+
+    record ChangesMessage(String type, long sequence, Collection<Change> changes) {
+    }
+
+    record ResyncMessage(String type, long sequence) {
+    }
+
+    // Changes are null when the batch overflowed and tells clients to refetch
+    private record Batch(long sequence, List<Change> changes, TextMessage message) {
+    }
+
+    private static final class Subscriber {
+        private final String id;
+        private final Session connection;
+        // Set by the flushing thread, cleared by Jetty once the message is written or has failed
+        private final AtomicBoolean sending = new AtomicBoolean();
+        // Only read and written by the flushing thread once registered
+        private long lastSequence;
+        private long lastSentAt;
+
+        Subscriber(String id, Session connection, long lastSequence, long lastSentAt) {
+            this.id = id;
+            this.connection = connection;
+            this.lastSequence = lastSequence;
+            this.lastSentAt = lastSentAt;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.library.feed;
+
+import com.example.library.security.JwtTokenProvider;
+import io.jsonwebtoken.Claims;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.server.HandshakeInterceptor;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.Map;
+
+/**
+ * Authenticates the WebSocket handshake. Browsers cannot set an Authorization header on a WebSocket,
+ * so the JWT travels in the {@code token} query parameter instead.
+ */
+@Component
+@RequiredArgsConstructor
+public class TokenHandshakeInterceptor implements HandshakeInterceptor {
+
+    public static final String EMAIL_ATTRIBUTE = "email";
+
+    private final JwtTokenProvider tokenProvider;
+
+    @Override
+    public boolean beforeHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                                   WebSocketHandler wsHandler, Map<String, Object> attributes) {
+        String token = UriComponentsBuilder.fromUri(request.getURI()).build().getQueryParams().getFirst("token");
+        Claims claims = token != null ? tokenProvider.parseClaims(token) : null;
+        if (claims == null) {
+            response.setStatusCode(HttpStatus.UNAUTHORIZED);
+            return false;
+        }
+        attributes.put(EMAIL_ATTRIBUTE, claims.getSubject());
+        return true;
+    }
+
+    @Override
+    public void afterHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                               WebSocketHandler wsHandler, Exception exception) {
+    }
+}
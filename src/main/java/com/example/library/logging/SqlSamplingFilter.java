@@ -0,0 +1,41 @@
+package com.example.library.logging;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.filter.Filter;
+import ch.qos.logback.core.spi.FilterReply;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lets one in {@code rate} SQL statements through, together with the parameter bindings logged for
+ * it on the same thread, and drops the rest before they reach the async queue. Other loggers are
+ * not affected.
+ */
+public class SqlSamplingFilter extends Filter<ILoggingEvent> {
+
+    private static final String SQL_LOGGER = "org.hibernate.SQL";
+    private static final String BIND_LOGGER = "org.hibernate.orm.jdbc.bind";
+
+    private final AtomicLong statements = new AtomicLong();
+    private final ThreadLocal<Boolean> sampled = ThreadLocal.withInitial(() -> Boolean.FALSE);
+
+    private int rate = 1;
+
+    public void setRate(int rate) {
+        this.rate = Math.max(0, rate);
+    }
+
+    @Override
+    public FilterReply decide(ILoggingEvent event) {
+        String loggerName = event.getLoggerName();
+        if (SQL_LOGGER.equals(loggerName)) {
+            boolean keep = rate > 0 && statements.getAndIncrement() % rate == 0;
+            sampled.set(keep);
+            return keep ? FilterReply.NEUTRAL : FilterReply.DENY;
+        }
+        if (loggerName.startsWith(BIND_LOGGER)) {
+            return sampled.get() ? FilterReply.NEUTRAL : FilterReply.DENY;
+        }
+        return FilterReply.NEUTRAL;
+    }
+}
@@ -3,11 +3,13 @@ package com.example.library.repository;
 import com.example.library.entity.Author;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 @Repository
@@ -22,4 +24,9 @@ public interface AuthorRepository extends JpaRepository<Author, Long> {
     Page<Author> searchAuthors(@Param("searchTerm") String searchTerm, Pageable pageable);
     
     boolean existsByName(String name);
-} 
\ No newline at end of file
+
+    Slice<Author> findByIdGreaterThan(Long afterId, Pageable pageable);
+
+    @Query("SELECT a.updatedAt FROM Author a WHERE a.id = :id")
+    Optional<LocalDateTime> findUpdatedAtById(@Param("id") Long id);
+}
@@ -3,24 +3,54 @@ package com.example.library.repository;
 import com.example.library.entity.Book;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface BookRepository extends JpaRepository<Book, Long> {
+
+    @Override
+    @EntityGraph("Book.summary")
+    Page<Book> findAll(Pageable pageable);
+
+    @EntityGraph("Book.detail")
+    Optional<Book> findDetailedById(Long id);
+
+    // A book's representation embeds its genre and authors, so its version covers all three
+    @Query("SELECT b.updatedAt AS bookUpdatedAt, g.updatedAt AS genreUpdatedAt, MAX(a.updatedAt) AS authorsUpdatedAt " +
+           "FROM Book b LEFT JOIN b.genre g LEFT JOIN b.authors a WHERE b.id = :id " +
+           "GROUP BY b.id, b.updatedAt, g.updatedAt")
+    Optional<BookVersion> findVersionById(@Param("id") Long id);
+
+    @EntityGraph("Book.detail")
+    List<Book> findWithAuthorsByIdIn(Collection<Long> ids);
     
+    @EntityGraph("Book.summary")
     Page<Book> findByTitleContainingIgnoreCase(String title, Pageable pageable);
     
+    @EntityGraph("Book.summary")
     Page<Book> findByGenreId(Long genreId, Pageable pageable);
     
+    @EntityGraph("Book.summary")
     @Query("SELECT b FROM Book b JOIN b.authors a WHERE a.id = :authorId")
     Page<Book> findByAuthorId(@Param("authorId") Long authorId, Pageable pageable);
     
-    @Query("SELECT b FROM Book b JOIN b.authors a JOIN b.genre g WHERE " +
+    @EntityGraph("Book.summary")
+    @Query(value = "SELECT DISTINCT b FROM Book b JOIN b.authors a JOIN b.genre g WHERE " +
+           "LOWER(b.title) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
+           "LOWER(b.description) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
+           "LOWER(a.name) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
+           "LOWER(g.name) LIKE LOWER(CONCAT('%', :searchTerm, '%'))",
+           countQuery = "SELECT COUNT(DISTINCT b) FROM Book b JOIN b.authors a JOIN b.genre g WHERE " +
            "LOWER(b.title) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
            "LOWER(b.description) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
            "LOWER(a.name) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
@@ -28,4 +58,53 @@ public interface BookRepository extends JpaRepository<Book, Long> {
     Page<Book> searchBooks(@Param("searchTerm") String searchTerm, Pageable pageable);
     
     boolean existsByIsbn(String isbn);
-} 
\ No newline at end of file
+
+    boolean existsByCoverImagePathAndIdNot(String coverImagePath, Long id);
+
+    boolean existsByCoverImagePath(String coverImagePath);
+
+    @Query("SELECT DISTINCT b.coverImagePath FROM Book b WHERE b.coverImagePath > :after ORDER BY b.coverImagePath")
+    List<String> findCoverImagePathsAfter(@Param("after") String after, Pageable pageable);
+
+    @EntityGraph("Book.summary")
+    Page<Book> findByIdIn(Collection<Long> ids, Pageable pageable);
+
+    @Query("SELECT COALESCE(MAX(b.id), 0) FROM Book b")
+    long findMaxId();
+
+    @Query("SELECT DISTINCT b FROM Book b LEFT JOIN FETCH b.authors LEFT JOIN FETCH b.genre " +
+           "WHERE b.id > :fromId AND b.id <= :toId")
+    List<Book> findWithAuthorsByIdRange(@Param("fromId") long fromId, @Param("toId") long toId);
+
+    @EntityGraph("Book.summary")
+    Slice<Book> findByIdGreaterThan(Long afterId, Pageable pageable);
+
+    @EntityGraph("Book.summary")
+    @Query("SELECT b FROM Book b WHERE b.title > :title OR (b.title = :title AND b.id > :afterId)")
+    Slice<Book> findAfterTitle(@Param("title") String title, @Param("afterId") Long afterId, Pageable pageable);
+
+    @EntityGraph("Book.summary")
+    @Query("SELECT b FROM Book b WHERE b.title < :title OR (b.title = :title AND b.id < :beforeId)")
+    Slice<Book> findBeforeTitle(@Param("title") String title, @Param("beforeId") Long beforeId, Pageable pageable);
+
+    @EntityGraph("Book.summary")
+    Slice<Book> findByGenreIdAndIdGreaterThan(Long genreId, Long afterId, Pageable pageable);
+
+    @EntityGraph("Book.summary")
+    @Query("SELECT b FROM Book b JOIN b.authors a WHERE a.id = :authorId AND b.id > :afterId")
+    Slice<Book> findByAuthorIdAfter(@Param("authorId") Long authorId, @Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT b.id FROM Book b JOIN b.authors a WHERE a.id = :authorId AND b.id > :afterId ORDER BY b.id")
+    List<Long> findIdsByAuthorIdAfter(@Param("authorId") Long authorId, @Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT b.id FROM Book b WHERE b.genre.id = :genreId AND b.id > :afterId ORDER BY b.id")
+    List<Long> findIdsByGenreIdAfter(@Param("genreId") Long genreId, @Param("afterId") Long afterId, Pageable pageable);
+
+    interface BookVersion {
+        LocalDateTime getBookUpdatedAt();
+
+        LocalDateTime getGenreUpdatedAt();
+
+        LocalDateTime getAuthorsUpdatedAt();
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.library.repository;
+
+import com.example.library.entity.CatalogVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CatalogVersionRepository extends JpaRepository<CatalogVersion, Long> {
+
+    @Modifying
+    @Query("UPDATE CatalogVersion c SET c.version = c.version + 1 WHERE c.id = :id")
+    int increment(@Param("id") Long id);
+}
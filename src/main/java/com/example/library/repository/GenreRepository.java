@@ -3,11 +3,13 @@ package com.example.library.repository;
 import com.example.library.entity.Genre;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 @Repository
@@ -22,4 +24,9 @@ public interface GenreRepository extends JpaRepository<Genre, Long> {
     Page<Genre> searchGenres(@Param("searchTerm") String searchTerm, Pageable pageable);
     
     boolean existsByName(String name);
-} 
\ No newline at end of file
+
+    Slice<Genre> findByIdGreaterThan(Long afterId, Pageable pageable);
+
+    @Query("SELECT g.updatedAt FROM Genre g WHERE g.id = :id")
+    Optional<LocalDateTime> findUpdatedAtById(@Param("id") Long id);
+}
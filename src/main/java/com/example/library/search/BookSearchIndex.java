@@ -0,0 +1,526 @@
+package com.example.library.search;
+
+import com.example.library.entity.Author;
+import com.example.library.entity.Book;
+import com.example.library.event.AuthorChangedEvent;
+import com.example.library.event.BookChangedEvent;
+import com.example.library.event.ChangeType;
+import com.example.library.event.GenreChangedEvent;
+import com.example.library.repository.BookRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Normalizer;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiFunction;
+
+/**
+ * In-memory inverted index over book title, author and genre terms, and optionally descriptions.
+ * Built once on startup and kept current from book, author and genre change events.
+ * <p>
+ * Each posting list is a sorted array of book ids with a one-byte weight per book, so a posting
+ * costs nine bytes instead of a boxed map entry. Descriptions are left out by default
+ * ({@code app.search.index-descriptions}); they hold most of a catalog's terms but add little to ranking.
+ * Each book also keeps its title folded for sorting, so sorted searches never go back to the database.
+ * <p>
+ * The index only sees writes made through this instance. With several instances behind a load
+ * balancer, each misses the others' writes until it restarts, so run one instance or accept that
+ * searches on the others lag behind.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookSearchIndex {
+
+    static final int TITLE_WEIGHT = 8;
+    static final int AUTHOR_WEIGHT = 4;
+    static final int GENRE_WEIGHT = 2;
+    static final int DESCRIPTION_WEIGHT = 1;
+
+    private static final int REBUILD_BATCH_SIZE = 1000;
+    private static final int MAX_PREFIX_EXPANSIONS = 256;
+
+    // Ranking sorts packed longs: inverted score in the high bits, book id in the low ones
+    private static final int ID_BITS = 47;
+    private static final long ID_MASK = (1L << ID_BITS) - 1;
+    private static final int MAX_SCORE = 0xFFFF;
+
+    private final BookRepository bookRepository;
+
+    @Value("${app.search.index-descriptions:false}")
+    private boolean indexDescriptions;
+
+    private final NavigableMap<String, Postings> postings = new TreeMap<>();
+    // Terms of each indexed book, sharing the dictionary's strings, so a book can be removed without its old text.
+    // Also its title folded for sorting
+    private final Map<Long, Document> documents = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Books changed by events while the initial build is running; the build must not overwrite them.
+    // Guarded by the write lock, like ready's transition, so a check and the indexing after it cannot interleave with an event
+    private final Set<Long> touchedDuringRebuild = new HashSet<>();
+    private volatile boolean ready;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startRebuild() {
+        Thread builder = new Thread(this::rebuild, "book-search-index");
+        builder.setDaemon(true);
+        builder.start();
+    }
+
+    void rebuild() {
+        long started = System.currentTimeMillis();
+        try {
+            long maxId = bookRepository.findMaxId();
+            for (long fromId = 0; fromId < maxId; fromId += REBUILD_BATCH_SIZE) {
+                List<Book> books = bookRepository.findWithAuthorsByIdRange(fromId, fromId + REBUILD_BATCH_SIZE);
+                lock.writeLock().lock();
+                try {
+                    for (Book book : books) {
+                        if (!touchedDuringRebuild.contains(book.getId())) {
+                            index(book);
+                        }
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+            lock.writeLock().lock();
+            try {
+                trim();
+                ready = true;
+                touchedDuringRebuild.clear();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.info("Book search index built with {} books and {} terms in {} ms", size(), postings.size(),
+                    System.currentTimeMillis() - started);
+        } catch (RuntimeException ex) {
+            log.error("Could not build book search index, searches will use the database", ex);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        apply(event.getId(), event.getType() == ChangeType.DELETED ? null : event.getBook());
+    }
+
+    // Author and genre names are terms of their books. A new author or genre has no books yet
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAuthorChanged(AuthorChangedEvent event) {
+        if (event.getType() != ChangeType.CREATED) {
+            reindexBooks((afterId, page) -> bookRepository.findIdsByAuthorIdAfter(event.getId(), afterId, page));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGenreChanged(GenreChangedEvent event) {
+        if (event.getType() != ChangeType.CREATED) {
+            reindexBooks((afterId, page) -> bookRepository.findIdsByGenreIdAfter(event.getId(), afterId, page));
+        }
+    }
+
+    private void reindexBooks(BiFunction<Long, Pageable, List<Long>> idsAfter) {
+        long afterId = 0;
+        List<Long> ids;
+        do {
+            ids = idsAfter.apply(afterId, PageRequest.of(0, REBUILD_BATCH_SIZE));
+            if (!ids.isEmpty()) {
+                bookRepository.findWithAuthorsByIdIn(ids).forEach(book -> apply(book.getId(), book));
+                afterId = ids.get(ids.size() - 1);
+            }
+        } while (ids.size() == REBUILD_BATCH_SIZE);
+    }
+
+    // A null book removes it
+    private void apply(Long bookId, Book book) {
+        lock.writeLock().lock();
+        try {
+            if (!ready) {
+                touchedDuringRebuild.add(bookId);
+            }
+            if (book == null) {
+                remove(bookId);
+            } else {
+                index(book);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void index(Book book) {
+        List<String> authorNames = new ArrayList<>();
+        for (Author author : book.getAuthors()) {
+            authorNames.add(author.getName());
+        }
+        String genreName = book.getGenre() != null ? book.getGenre().getName() : null;
+        index(book.getId(), book.getTitle(), book.getDescription(), authorNames, genreName);
+    }
+
+    /**
+     * Sorts the search results on a key the index holds rather than by relevance.
+     */
+    public enum Order {
+        // Ignoring case and accents, as the database collation does, then by id
+        TITLE,
+        ID
+    }
+
+    public void index(Long bookId, String title, String description, Collection<String> authorNames, String genreName) {
+        Map<String, Integer> weights = new HashMap<>();
+        addTerms(weights, title, TITLE_WEIGHT);
+        if (indexDescriptions) {
+            addTerms(weights, description, DESCRIPTION_WEIGHT);
+        }
+        for (String authorName : authorNames) {
+            addTerms(weights, authorName, AUTHOR_WEIGHT);
+        }
+        addTerms(weights, genreName, GENRE_WEIGHT);
+
+        lock.writeLock().lock();
+        try {
+            removePostings(bookId);
+            String[] terms = new String[weights.size()];
+            int count = 0;
+            for (Map.Entry<String, Integer> entry : weights.entrySet()) {
+                String term = postings.ceilingKey(entry.getKey());
+                if (!entry.getKey().equals(term)) {
+                    term = entry.getKey();
+                    postings.put(term, new Postings());
+                }
+                postings.get(term).put(bookId, entry.getValue());
+                terms[count++] = term;
+            }
+            documents.put(bookId, new Document(terms, sortKey(title)));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long bookId) {
+        lock.writeLock().lock();
+        try {
+            removePostings(bookId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the ids of all books matching every term of the query, best match first.
+     * A query term matches an indexed term exactly or as a prefix; prefix matches score half.
+     */
+    public List<Long> search(String query) {
+        return search(query, null, false);
+    }
+
+    /**
+     * Returns the ids of the same books as {@link #search(String)}, sorted by {@code order} instead
+     * of relevance, or by relevance when it is null.
+     */
+    public List<Long> search(String query, Order order, boolean descending) {
+        List<String> queryTerms = tokenize(query);
+        if (queryTerms.isEmpty()) {
+            return List.of();
+        }
+
+        Matches matches = null;
+        String[] sortKeys = null;
+        lock.readLock().lock();
+        try {
+            for (String queryTerm : queryTerms) {
+                Matches termMatches = scoreTerm(queryTerm);
+                matches = matches == null ? termMatches : matches.intersect(termMatches);
+                if (matches.size == 0) {
+                    return List.of();
+                }
+            }
+            if (order == Order.TITLE) {
+                sortKeys = new String[matches.size];
+                for (int i = 0; i < matches.size; i++) {
+                    sortKeys[i] = documents.get(matches.ids[i]).sortKey();
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (order == null) {
+            return asList(matches.ranked());
+        }
+        long[] sorted = order == Order.TITLE ? matches.sortedBy(sortKeys) : Arrays.copyOf(matches.ids, matches.size);
+        if (descending) {
+            reverse(sorted);
+        }
+        return asList(sorted);
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+        for (String term : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!term.isEmpty()) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+
+    private Matches scoreTerm(String queryTerm) {
+        List<Postings> lists = new ArrayList<>();
+        List<Boolean> exact = new ArrayList<>();
+        int total = 0;
+        for (Map.Entry<String, Postings> entry
+                : postings.subMap(queryTerm, true, queryTerm + Character.MAX_VALUE, false).entrySet()) {
+            lists.add(entry.getValue());
+            exact.add(entry.getKey().equals(queryTerm));
+            total += entry.getValue().size;
+            if (lists.size() >= MAX_PREFIX_EXPANSIONS) {
+                break;
+            }
+        }
+
+        // Packs id and score into one long, so the postings of all expansions merge with one primitive sort
+        long[] packed = new long[total];
+        int count = 0;
+        for (int list = 0; list < lists.size(); list++) {
+            Postings postingList = lists.get(list);
+            for (int i = 0; i < postingList.size; i++) {
+                int weight = postingList.weights[i];
+                int score = exact.get(list) ? weight : Math.max(1, weight / 2);
+                packed[count++] = postingList.ids[i] << 8 | score;
+            }
+        }
+        if (lists.size() > 1) {
+            Arrays.sort(packed);
+        }
+
+        Matches matches = new Matches(total);
+        for (long entry : packed) {
+            long bookId = entry >>> 8;
+            int score = (int) (entry & 0xFF);
+            // Sorted by id then score, so the last entry of an id carries its best score
+            if (matches.size > 0 && matches.ids[matches.size - 1] == bookId) {
+                matches.scores[matches.size - 1] = Math.max(matches.scores[matches.size - 1], score);
+            } else {
+                matches.add(bookId, score);
+            }
+        }
+        return matches;
+    }
+
+    private void addTerms(Map<String, Integer> weights, String text, int weight) {
+        for (String term : tokenize(text)) {
+            weights.merge(term, weight, Integer::sum);
+        }
+    }
+
+    private void removePostings(Long bookId) {
+        Document document = documents.remove(bookId);
+        if (document == null) {
+            return;
+        }
+        for (String term : document.terms()) {
+            Postings postingList = postings.get(term);
+            if (postingList != null && postingList.remove(bookId)) {
+                postings.remove(term);
+            }
+        }
+    }
+
+    private void trim() {
+        lock.writeLock().lock();
+        try {
+            postings.values().forEach(Postings::trim);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    static String sortKey(String title) {
+        if (title == null) {
+            return "";
+        }
+        return Normalizer.normalize(title, Normalizer.Form.NFD).replaceAll("\\p{M}+", "").toLowerCase(Locale.ROOT);
+    }
+
+    private static void reverse(long[] values) {
+        for (int i = 0, j = values.length - 1; i < j; i++, j--) {
+            long value = values[i];
+            values[i] = values[j];
+            values[j] = value;
+        }
+    }
+
+    // Unboxes lazily, so paging through a large result never boxes more than the page
+    private static List<Long> asList(long[] ids) {
+        return new AbstractList<>() {
+            @Override
+            public Long get(int index) {
+                return ids[index];
+            }
+
+            @Override
+            public int size() {
+                return ids.length;
+            }
+        };
+    }
+
+    private record Document(String[] terms, String sortKey) {
+    }
+
+    /**
+     * Book ids containing a term, ascending, with the term's weight in each book capped at a byte.
+     */
+    static final class Postings {
+
+        private long[] ids = new long[2];
+        private byte[] weights = new byte[2];
+        private int size;
+
+        void put(long bookId, int weight) {
+            byte capped = (byte) Math.min(weight, Byte.MAX_VALUE);
+            // New books get the highest ids, so most inserts append
+            int index = size == 0 || ids[size - 1] < bookId ? -size - 1 : Arrays.binarySearch(ids, 0, size, bookId);
+            if (index >= 0) {
+                weights[index] = capped;
+                return;
+            }
+            index = -index - 1;
+            if (size == ids.length) {
+                int capacity = size + (size >> 1) + 1;
+                ids = Arrays.copyOf(ids, capacity);
+                weights = Arrays.copyOf(weights, capacity);
+            }
+            System.arraycopy(ids, index, ids, index + 1, size - index);
+            System.arraycopy(weights, index, weights, index + 1, size - index);
+            ids[index] = bookId;
+            weights[index] = capped;
+            size++;
+        }
+
+        /**
+         * Returns whether the list is empty afterwards.
+         */
+        boolean remove(long bookId) {
+            int index = Arrays.binarySearch(ids, 0, size, bookId);
+            if (index >= 0) {
+                System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+                System.arraycopy(weights, index + 1, weights, index, size - index - 1);
+                size--;
+                if (size < ids.length / 4) {
+                    trim();
+                }
+            }
+            return size == 0;
+        }
+
+        void trim() {
+            if (size < ids.length) {
+                ids = Arrays.copyOf(ids, size);
+                weights = Arrays.copyOf(weights, size);
+            }
+        }
+    }
+
+    /**
+     * Matching book ids, ascending, with their scores so far.
+     */
+    private static final class Matches {
+
+        private final long[] ids;
+        private final int[] scores;
+        private int size;
+
+        Matches(int capacity) {
+            ids = new long[capacity];
+            scores = new int[capacity];
+        }
+
+        void add(long bookId, int score) {
+            ids[size] = bookId;
+            scores[size] = score;
+            size++;
+        }
+
+        Matches intersect(Matches other) {
+            Matches result = new Matches(Math.min(size, other.size));
+            int i = 0;
+            int j = 0;
+            while (i < size && j < other.size) {
+                if (ids[i] < other.ids[j]) {
+                    i++;
+                } else if (ids[i] > other.ids[j]) {
+                    j++;
+                } else {
+                    result.add(ids[i], scores[i] + other.scores[j]);
+                    i++;
+                    j++;
+                }
+            }
+            return result;
+        }
+
+        // Stable, so books with the same key stay in id order
+        long[] sortedBy(String[] keys) {
+            Integer[] positions = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                positions[i] = i;
+            }
+            Arrays.sort(positions, (a, b) -> keys[a].compareTo(keys[b]));
+            long[] sorted = new long[size];
+            for (int i = 0; i < size; i++) {
+                sorted[i] = ids[positions[i]];
+            }
+            return sorted;
+        }
+
+        long[] ranked() {
+            long[] keys = new long[size];
+            for (int i = 0; i < size; i++) {
+                keys[i] = (long) (MAX_SCORE - Math.min(scores[i], MAX_SCORE)) << ID_BITS | ids[i];
+            }
+            Arrays.sort(keys);
+            for (int i = 0; i < size; i++) {
+                keys[i] &= ID_MASK;
+            }
+            return keys;
+        }
+    }
+}
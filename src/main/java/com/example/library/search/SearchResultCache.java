@@ -0,0 +1,83 @@
+package com.example.library.search;
+
+import com.example.library.event.CatalogChangeEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Remembers which book ids a search page returned, so a repeated search only loads those books by
+ * id. Entries hold the ids and the total count, not entities.
+ * <p>
+ * Every key carries the generation at the time its search started. Any catalog write bumps the
+ * generation, so older entries can no longer be found and simply age out, and a search that raced a
+ * write is stored under the generation it started with.
+ */
+@Component
+public class SearchResultCache {
+
+    private final Cache<Key, Entry> entries;
+    private final AtomicLong generation = new AtomicLong();
+
+    public SearchResultCache(@Value("${app.search.cache.max-entries:10000}") long maxEntries,
+                             @Value("${app.search.cache.ttl:PT10M}") Duration ttl) {
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Lower-cases the term and collapses whitespace, so equivalent searches share entries. Searches
+     * run on the normalized term too, which keeps cached and uncached results identical.
+     */
+    public static String normalize(String term) {
+        return term == null ? "" : term.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Key for a search about to run. Take it before searching, so a write during the search leaves
+     * the result under an outdated generation.
+     */
+    public Key key(String normalizedTerm, Pageable pageable, boolean indexed) {
+        return new Key(generation.get(), normalizedTerm, pageable.getPageNumber(), pageable.getPageSize(),
+                pageable.getSort().toString(), indexed);
+    }
+
+    public Entry get(Key key) {
+        return key.generation() == generation.get() ? entries.getIfPresent(key) : null;
+    }
+
+    public void put(Key key, List<Long> ids, long total) {
+        if (key.generation() == generation.get()) {
+            entries.put(key, new Entry(ids.stream().mapToLong(Long::longValue).toArray(), total));
+        }
+    }
+
+    public Cache<Key, Entry> getNativeCache() {
+        return entries;
+    }
+
+    // After completion rather than after commit, so the search index has applied the change first.
+    // Nothing is evicted here: bulk imports write thousands of books, and outdated entries are unreachable anyway
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION, fallbackExecution = true)
+    public void onCatalogChange(CatalogChangeEvent event) {
+        generation.incrementAndGet();
+    }
+
+    public record Key(long generation, String term, int page, int size, String sort, boolean indexed) {
+    }
+
+    public record Entry(long[] ids, long total) {
+    }
+}
@@ -0,0 +1,753 @@
+package com.example.library.search;
+
+import com.example.library.dto.Suggestion;
+import com.example.library.dto.SuggestionType;
+import com.example.library.entity.Author;
+import com.example.library.entity.Book;
+import com.example.library.entity.Genre;
+import com.example.library.event.AuthorChangedEvent;
+import com.example.library.event.BookChangedEvent;
+import com.example.library.event.ChangeType;
+import com.example.library.event.GenreChangedEvent;
+import com.example.library.repository.AuthorRepository;
+import com.example.library.repository.BookRepository;
+import com.example.library.repository.GenreRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * In-memory typeahead over book titles, author names and genre names.
+ * <p>
+ * A path-compressed trie keyed by normalized text. Each entry is keyed from each of its first few
+ * word starts, so "rings" completes "The Lord of the Rings". Every node keeps the best entries of
+ * its subtree. A lookup walks the typed prefix and returns that list without visiting the subtree.
+ * Authors and genres rank by their number of books. Built once on startup and kept current from
+ * catalog change events.
+ * <p>
+ * Most nodes are leaves holding a single entry, so they are kept small: labels are ranges of the
+ * normalized text shared by all keys of an entry, and a leaf ranks its own entries instead of
+ * keeping a separate best list.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SuggestionIndex {
+
+    public static final int MAX_SUGGESTIONS = 10;
+
+    static final int MAX_WORD_STARTS = 6;
+    static final int MAX_KEY_LENGTH = 48;
+
+    private static final int REBUILD_BATCH_SIZE = 1000;
+
+    private static final Comparator<Entry> RANKING = Comparator.comparingInt(Entry::weight).reversed()
+            .thenComparing(Entry::text)
+            .thenComparing(Entry::type)
+            .thenComparingLong(Entry::id);
+
+    private static final char[] NO_CHARS = new char[0];
+    private static final Node[] NO_NODES = new Node[0];
+    private static final Entry[] NO_ENTRIES = new Entry[0];
+
+    private final BookRepository bookRepository;
+    private final AuthorRepository authorRepository;
+    private final GenreRepository genreRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Node root = new Node(NO_CHARS, 0, 0);
+    private Map<Long, IndexedBook> books = new HashMap<>();
+    private Map<Long, IndexedName> authors = new HashMap<>();
+    private Map<Long, IndexedName> genres = new HashMap<>();
+
+    // Changes arriving during the initial build, replayed after it. Every change is an upsert or a
+    // removal, so replaying one the build already picked up is harmless
+    private final List<Runnable> pendingChanges = new ArrayList<>();
+    private boolean building;
+    private volatile boolean ready;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return books.size() + named(authors) + named(genres);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startRebuild() {
+        lock.writeLock().lock();
+        try {
+            building = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Thread builder = new Thread(this::rebuild, "suggestion-index");
+        builder.setDaemon(true);
+        builder.start();
+    }
+
+    void rebuild() {
+        long started = System.currentTimeMillis();
+        try {
+            Map<Long, IndexedName> builtGenres = loadNames(SuggestionType.GENRE,
+                    genreRepository::findByIdGreaterThan, Genre::getId, Genre::getName);
+            Map<Long, IndexedName> builtAuthors = loadNames(SuggestionType.AUTHOR,
+                    authorRepository::findByIdGreaterThan, Author::getId, Author::getName);
+            Map<Long, IndexedBook> builtBooks = new HashMap<>();
+            long maxId = bookRepository.findMaxId();
+            for (long fromId = 0; fromId < maxId; fromId += REBUILD_BATCH_SIZE) {
+                for (Book book : bookRepository.findWithAuthorsByIdRange(fromId, fromId + REBUILD_BATCH_SIZE)) {
+                    Entry entry = new Entry(SuggestionType.BOOK, book.getId(), book.getTitle(), 1);
+                    IndexedBook indexed = new IndexedBook(entry, genreId(book), authorIds(book));
+                    builtBooks.put(book.getId(), indexed);
+                    if (indexed.genreId() != null) {
+                        builtGenres.computeIfAbsent(indexed.genreId(), id -> new IndexedName()).bookCount++;
+                    }
+                    for (long authorId : indexed.authorIds()) {
+                        builtAuthors.computeIfAbsent(authorId, id -> new IndexedName()).bookCount++;
+                    }
+                }
+            }
+
+            // Bulk insert without ranking, then rank every node once bottom-up
+            Node builtRoot = new Node(NO_CHARS, 0, 0);
+            builtBooks.values().forEach(book -> insertKeys(builtRoot, book.entry(), false));
+            for (Map<Long, IndexedName> names : List.of(builtGenres, builtAuthors)) {
+                for (IndexedName name : names.values()) {
+                    if (name.entry != null) {
+                        name.entry = name.entry.withWeight(weight(name.bookCount));
+                        insertKeys(builtRoot, name.entry, false);
+                    }
+                }
+            }
+            builtRoot.rankSubtree();
+
+            lock.writeLock().lock();
+            try {
+                root = builtRoot;
+                books = builtBooks;
+                authors = builtAuthors;
+                genres = builtGenres;
+                replayPendingChanges();
+                ready = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.info("Suggestion index built with {} entries in {} ms", size(), System.currentTimeMillis() - started);
+        } catch (RuntimeException ex) {
+            log.error("Could not build suggestion index, typeahead only covers changes made since startup", ex);
+            lock.writeLock().lock();
+            try {
+                replayPendingChanges();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        if (event.getType() == ChangeType.DELETED) {
+            removeBook(event.getId());
+        } else {
+            Book book = event.getBook();
+            indexBook(book.getId(), book.getTitle(), genreId(book),
+                    book.getAuthors().stream().map(Author::getId).toList());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAuthorChanged(AuthorChangedEvent event) {
+        if (event.getType() == ChangeType.DELETED) {
+            removeAuthor(event.getId());
+        } else {
+            indexAuthor(event.getId(), event.getAuthor().getName());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGenreChanged(GenreChangedEvent event) {
+        if (event.getType() == ChangeType.DELETED) {
+            removeGenre(event.getId());
+        } else {
+            indexGenre(event.getId(), event.getGenre().getName());
+        }
+    }
+
+    public void indexBook(Long bookId, String title, Long genreId, Collection<Long> authorIds) {
+        long[] distinctAuthorIds = authorIds.stream().mapToLong(Long::longValue).distinct().toArray();
+        write(() -> {
+            IndexedBook previous = books.remove(bookId);
+            if (previous != null) {
+                removeKeys(root, previous.entry());
+            }
+            IndexedBook indexed = new IndexedBook(new Entry(SuggestionType.BOOK, bookId, title, 1), genreId,
+                    distinctAuthorIds);
+            insertKeys(root, indexed.entry(), true);
+            books.put(bookId, indexed);
+
+            if (previous == null || !Objects.equals(previous.genreId(), genreId)) {
+                if (previous != null) {
+                    adjustBookCount(genres, previous.genreId(), -1);
+                }
+                adjustBookCount(genres, genreId, 1);
+            }
+            long[] previousAuthorIds = previous != null ? previous.authorIds() : new long[0];
+            for (long authorId : previousAuthorIds) {
+                if (!contains(distinctAuthorIds, authorId)) {
+                    adjustBookCount(authors, authorId, -1);
+                }
+            }
+            for (long authorId : distinctAuthorIds) {
+                if (!contains(previousAuthorIds, authorId)) {
+                    adjustBookCount(authors, authorId, 1);
+                }
+            }
+        });
+    }
+
+    public void removeBook(Long bookId) {
+        write(() -> {
+            IndexedBook previous = books.remove(bookId);
+            if (previous == null) {
+                return;
+            }
+            removeKeys(root, previous.entry());
+            adjustBookCount(genres, previous.genreId(), -1);
+            for (long authorId : previous.authorIds()) {
+                adjustBookCount(authors, authorId, -1);
+            }
+        });
+    }
+
+    public void indexAuthor(Long authorId, String name) {
+        write(() -> indexName(authors, SuggestionType.AUTHOR, authorId, name));
+    }
+
+    public void removeAuthor(Long authorId) {
+        write(() -> removeName(authors, authorId));
+    }
+
+    public void indexGenre(Long genreId, String name) {
+        write(() -> indexName(genres, SuggestionType.GENRE, genreId, name));
+    }
+
+    public void removeGenre(Long genreId) {
+        write(() -> removeName(genres, genreId));
+    }
+
+    /**
+     * Returns up to {@code limit} titles and names completing the query, best first. The query
+     * matches from the start of an entry or from one of its first {@value #MAX_WORD_STARTS} words,
+     * ignoring case, accents and punctuation.
+     */
+    public List<Suggestion> suggest(String query, int limit) {
+        String prefix = truncate(normalize(query));
+        if (prefix.isEmpty()) {
+            return List.of();
+        }
+        int max = Math.max(1, Math.min(limit, MAX_SUGGESTIONS));
+        lock.readLock().lock();
+        try {
+            Node node = find(root, prefix.toCharArray());
+            if (node == null) {
+                return List.of();
+            }
+            Entry[] ranked = node.ranked();
+            List<Suggestion> suggestions = new ArrayList<>(Math.min(max, ranked.length));
+            for (int i = 0; i < ranked.length && i < max; i++) {
+                Entry entry = ranked[i];
+                suggestions.add(new Suggestion(entry.type(), entry.id(), entry.text()));
+            }
+            return suggestions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String folded = Normalizer.normalize(text, Normalizer.Form.NFD).replaceAll("\\p{M}+", "");
+        return String.join(" ", BookSearchIndex.tokenize(folded));
+    }
+
+    /**
+     * Offsets of the keys in the normalized text: the start of each of its first
+     * {@value #MAX_WORD_STARTS} words. A key runs from there to the end of the text, cut at
+     * {@value #MAX_KEY_LENGTH} chars; keys that end up identical are listed once.
+     */
+    static int[] keyStarts(char[] text) {
+        int[] starts = new int[MAX_WORD_STARTS];
+        int count = 0;
+        int words = 0;
+        for (int at = 0; at < text.length && words < MAX_WORD_STARTS; at++) {
+            if (at > 0 && text[at - 1] != ' ') {
+                continue;
+            }
+            words++;
+            boolean duplicate = false;
+            for (int i = 0; i < count && !duplicate; i++) {
+                duplicate = Arrays.equals(text, starts[i], keyEnd(text, starts[i]), text, at, keyEnd(text, at));
+            }
+            if (!duplicate) {
+                starts[count++] = at;
+            }
+        }
+        return Arrays.copyOf(starts, count);
+    }
+
+    static int keyEnd(char[] text, int start) {
+        return Math.min(text.length, start + MAX_KEY_LENGTH);
+    }
+
+    private void write(Runnable change) {
+        lock.writeLock().lock();
+        try {
+            if (building) {
+                pendingChanges.add(change);
+            } else {
+                change.run();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void replayPendingChanges() {
+        building = false;
+        pendingChanges.forEach(Runnable::run);
+        pendingChanges.clear();
+    }
+
+    private void indexName(Map<Long, IndexedName> names, SuggestionType type, Long id, String text) {
+        IndexedName name = names.computeIfAbsent(id, key -> new IndexedName());
+        if (name.entry != null) {
+            removeKeys(root, name.entry);
+        }
+        name.entry = new Entry(type, id, text, weight(name.bookCount));
+        insertKeys(root, name.entry, true);
+    }
+
+    private void removeName(Map<Long, IndexedName> names, Long id) {
+        IndexedName name = names.remove(id);
+        if (name != null && name.entry != null) {
+            removeKeys(root, name.entry);
+        }
+    }
+
+    private void adjustBookCount(Map<Long, IndexedName> names, Long id, int delta) {
+        if (id == null) {
+            return;
+        }
+        // Books may arrive before the event naming their author or genre; the count waits for the name
+        IndexedName name = names.computeIfAbsent(id, key -> new IndexedName());
+        name.bookCount += delta;
+        if (name.entry != null) {
+            removeKeys(root, name.entry);
+            name.entry = name.entry.withWeight(weight(name.bookCount));
+            insertKeys(root, name.entry, true);
+        } else if (name.bookCount <= 0) {
+            names.remove(id);
+        }
+    }
+
+    private <T> Map<Long, IndexedName> loadNames(SuggestionType type, BiFunction<Long, Pageable, Slice<T>> page,
+                                                 Function<T, Long> idOf, Function<T, String> nameOf) {
+        Map<Long, IndexedName> names = new HashMap<>();
+        long afterId = 0;
+        Slice<T> slice;
+        do {
+            slice = page.apply(afterId, PageRequest.of(0, REBUILD_BATCH_SIZE, Sort.by("id")));
+            for (T item : slice) {
+                IndexedName name = new IndexedName();
+                name.entry = new Entry(type, idOf.apply(item), nameOf.apply(item), 1);
+                names.put(idOf.apply(item), name);
+                afterId = idOf.apply(item);
+            }
+        } while (slice.hasNext());
+        return names;
+    }
+
+    // One normalized copy of the text per entry; every node created for its keys labels itself with a range of it
+    private static void insertKeys(Node root, Entry entry, boolean rank) {
+        char[] text = normalize(entry.text()).toCharArray();
+        for (int start : keyStarts(text)) {
+            insert(root, text, start, entry, rank);
+        }
+    }
+
+    private static void removeKeys(Node root, Entry entry) {
+        char[] text = normalize(entry.text()).toCharArray();
+        for (int start : keyStarts(text)) {
+            remove(root, text, start, entry);
+        }
+    }
+
+    private static void insert(Node root, char[] text, int start, Entry entry, boolean rank) {
+        int end = keyEnd(text, start);
+        List<Node> path = rank ? new ArrayList<>() : null;
+        Node node = root;
+        int pos = start;
+        while (true) {
+            if (path != null) {
+                path.add(node);
+            }
+            if (pos == end) {
+                node.terminals = insertSorted(node.terminals, entry);
+                break;
+            }
+            Node child = node.child(text[pos]);
+            if (child == null) {
+                if (rank && node.isLeaf()) {
+                    // A leaf about to get its first child starts keeping a best list of its own
+                    node.top = best(node.terminals);
+                }
+                Node leaf = new Node(text, pos, end);
+                leaf.terminals = new Entry[] {entry};
+                node.putChild(leaf);
+                break;
+            }
+            int common = child.commonPrefix(text, pos, end);
+            if (common < child.length()) {
+                // The key leaves the edge part way: split it, the new node covers the same subtree
+                Node middle = new Node(child.chars, child.from, child.from + common);
+                child.from += common;
+                middle.putChild(child);
+                middle.top = best(child.ranked());
+                node.putChild(middle);
+                child = middle;
+            }
+            node = child;
+            pos += common;
+        }
+        if (path != null) {
+            for (Node onPath : path) {
+                onPath.offer(entry);
+            }
+        }
+    }
+
+    private static void remove(Node root, char[] text, int start, Entry entry) {
+        int end = keyEnd(text, start);
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        int pos = start;
+        path.add(node);
+        while (pos < end) {
+            Node child = node.child(text[pos]);
+            if (child == null || child.commonPrefix(text, pos, end) < child.length()) {
+                return;
+            }
+            pos += child.length();
+            node = child;
+            path.add(node);
+        }
+        node.terminals = without(node.terminals, entry);
+
+        for (int i = path.size() - 1; i >= 0; i--) {
+            Node current = path.get(i);
+            if (i > 0 && current.terminals.length == 0) {
+                if (current.children.length == 0) {
+                    path.get(i - 1).removeChild(current.first());
+                    continue;
+                }
+                if (current.children.length == 1) {
+                    current.absorbOnlyChild();
+                }
+            }
+            if (current.isLeaf()) {
+                current.top = NO_ENTRIES;
+            } else if (contains(current.top, entry)) {
+                current.rank();
+            }
+        }
+    }
+
+    private static Node find(Node root, char[] prefix) {
+        Node node = root;
+        int pos = 0;
+        while (pos < prefix.length) {
+            Node child = node.child(prefix[pos]);
+            if (child == null) {
+                return null;
+            }
+            int common = child.commonPrefix(prefix, pos, prefix.length);
+            if (pos + common == prefix.length) {
+                return child;
+            }
+            if (common < child.length()) {
+                return null;
+            }
+            pos += common;
+            node = child;
+        }
+        return node;
+    }
+
+    private static String truncate(String key) {
+        return key.length() > MAX_KEY_LENGTH ? key.substring(0, MAX_KEY_LENGTH) : key;
+    }
+
+    private static int weight(int bookCount) {
+        return 1 + Math.max(0, bookCount);
+    }
+
+    private static Long genreId(Book book) {
+        return book.getGenre() != null ? book.getGenre().getId() : null;
+    }
+
+    private static long[] authorIds(Book book) {
+        return book.getAuthors().stream().mapToLong(Author::getId).distinct().toArray();
+    }
+
+    private static int named(Map<Long, IndexedName> names) {
+        int count = 0;
+        for (IndexedName name : names.values()) {
+            if (name.entry != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static boolean contains(long[] values, long value) {
+        for (long candidate : values) {
+            if (candidate == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean contains(Entry[] entries, Entry entry) {
+        for (Entry candidate : entries) {
+            if (candidate.equals(entry)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Entry[] append(Entry[] entries, Entry entry) {
+        Entry[] grown = Arrays.copyOf(entries, entries.length + 1);
+        grown[entries.length] = entry;
+        return grown;
+    }
+
+    private static Entry[] insertSorted(Entry[] entries, Entry entry) {
+        int at = Arrays.binarySearch(entries, entry, RANKING);
+        if (at >= 0) {
+            return entries;
+        }
+        at = -at - 1;
+        Entry[] grown = new Entry[entries.length + 1];
+        System.arraycopy(entries, 0, grown, 0, at);
+        grown[at] = entry;
+        System.arraycopy(entries, at, grown, at + 1, entries.length - at);
+        return grown;
+    }
+
+    private static Entry[] best(Entry[] ranked) {
+        return ranked.length > MAX_SUGGESTIONS ? Arrays.copyOf(ranked, MAX_SUGGESTIONS) : ranked;
+    }
+
+    private static Entry[] without(Entry[] entries, Entry entry) {
+        List<Entry> kept = new ArrayList<>(entries.length);
+        for (Entry candidate : entries) {
+            if (!candidate.equals(entry)) {
+                kept.add(candidate);
+            }
+        }
+        return kept.toArray(NO_ENTRIES);
+    }
+
+    private record Entry(SuggestionType type, long id, String text, int weight) {
+
+        Entry withWeight(int newWeight) {
+            return new Entry(type, id, text, newWeight);
+        }
+    }
+
+    private record IndexedBook(Entry entry, Long genreId, long[] authorIds) {
+    }
+
+    private static final class IndexedName {
+        // Null until the author or genre itself has been seen
+        private Entry entry;
+        private int bookCount;
+    }
+
+    /**
+     * Trie node. Arrays are replaced rather than modified, so a node split can share its child's ranking.
+     * <p>
+     * The label is {@code chars[from, to)}, where {@code chars} is the normalized text of an entry with
+     * a key through this node, so the chars just before {@code from} spell the path from the root.
+     */
+    private static final class Node {
+        private char[] chars;
+        private int from;
+        private int to;
+        private char[] firsts = NO_CHARS;
+        private Node[] children = NO_NODES;
+        // In RANKING order
+        private Entry[] terminals = NO_ENTRIES;
+        // Best entries of the subtree, at most MAX_SUGGESTIONS, in RANKING order. Empty on leaves
+        private Entry[] top = NO_ENTRIES;
+
+        Node(char[] chars, int from, int to) {
+            this.chars = chars;
+            this.from = from;
+            this.to = to;
+        }
+
+        int length() {
+            return to - from;
+        }
+
+        char first() {
+            return chars[from];
+        }
+
+        int commonPrefix(char[] key, int pos, int end) {
+            int mismatch = Arrays.mismatch(chars, from, to, key, pos, end);
+            return mismatch < 0 ? length() : mismatch;
+        }
+
+        boolean isLeaf() {
+            return children.length == 0;
+        }
+
+        // Best entries first; on a leaf that is all of its terminals, which may be more than MAX_SUGGESTIONS
+        Entry[] ranked() {
+            return isLeaf() ? terminals : top;
+        }
+
+        Node child(char first) {
+            int index = Arrays.binarySearch(firsts, first);
+            return index >= 0 ? children[index] : null;
+        }
+
+        void putChild(Node child) {
+            char first = child.first();
+            int index = Arrays.binarySearch(firsts, first);
+            if (index >= 0) {
+                children = children.clone();
+                children[index] = child;
+                return;
+            }
+            int at = -index - 1;
+            char[] grownFirsts = new char[firsts.length + 1];
+            Node[] grownChildren = new Node[children.length + 1];
+            System.arraycopy(firsts, 0, grownFirsts, 0, at);
+            System.arraycopy(children, 0, grownChildren, 0, at);
+            grownFirsts[at] = first;
+            grownChildren[at] = child;
+            System.arraycopy(firsts, at, grownFirsts, at + 1, firsts.length - at);
+            System.arraycopy(children, at, grownChildren, at + 1, children.length - at);
+            firsts = grownFirsts;
+            children = grownChildren;
+        }
+
+        void removeChild(char first) {
+            int index = Arrays.binarySearch(firsts, first);
+            if (index < 0) {
+                return;
+            }
+            char[] shrunkFirsts = new char[firsts.length - 1];
+            Node[] shrunkChildren = new Node[children.length - 1];
+            System.arraycopy(firsts, 0, shrunkFirsts, 0, index);
+            System.arraycopy(children, 0, shrunkChildren, 0, index);
+            System.arraycopy(firsts, index + 1, shrunkFirsts, index, firsts.length - index - 1);
+            System.arraycopy(children, index + 1, shrunkChildren, index, children.length - index - 1);
+            firsts = shrunkFirsts;
+            children = shrunkChildren;
+        }
+
+        // Keeps the trie path-compressed after a removal leaves a node with one child and no entries
+        void absorbOnlyChild() {
+            Node only = children[0];
+            chars = only.chars;
+            from = only.from - length();
+            to = only.to;
+            firsts = only.firsts;
+            children = only.children;
+            terminals = only.terminals;
+            top = only.top;
+        }
+
+        void offer(Entry entry) {
+            if (isLeaf() || contains(top, entry)) {
+                return;
+            }
+            if (top.length < MAX_SUGGESTIONS) {
+                Entry[] grown = append(top, entry);
+                Arrays.sort(grown, RANKING);
+                top = grown;
+            } else if (RANKING.compare(entry, top[top.length - 1]) < 0) {
+                Entry[] replaced = top.clone();
+                replaced[replaced.length - 1] = entry;
+                Arrays.sort(replaced, RANKING);
+                top = replaced;
+            }
+        }
+
+        void rank() {
+            if (isLeaf()) {
+                top = NO_ENTRIES;
+                return;
+            }
+            List<Entry> candidates = new ArrayList<>(Arrays.asList(best(terminals)));
+            for (Node child : children) {
+                candidates.addAll(Arrays.asList(best(child.ranked())));
+            }
+            candidates.sort(RANKING);
+            List<Entry> best = new ArrayList<>(MAX_SUGGESTIONS);
+            for (Entry candidate : candidates) {
+                if (best.size() == MAX_SUGGESTIONS) {
+                    break;
+                }
+                // The same entry reaches a node through each of its keys below it; duplicates sort together
+                if (best.isEmpty() || !best.get(best.size() - 1).equals(candidate)) {
+                    best.add(candidate);
+                }
+            }
+            top = best.toArray(NO_ENTRIES);
+        }
+
+        void rankSubtree() {
+            for (Node child : children) {
+                child.rankSubtree();
+            }
+            rank();
+        }
+    }
+}
@@ -5,23 +5,64 @@ import com.example.library.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
+    private final VerifiedPrincipalCache principalCache;
 
+    // A transaction of its own, so during login the connection is back in the pool before the password is
+    // checked. Not read-only, which would route to a replica that may not have a just-registered account yet
     @Override
+    @Transactional
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
+        return toUserDetails(user);
+    }
+
+    /**
+     * Called by the authentication provider after a successful login whose stored hash was made with
+     * a lower cost than the encoder's current one, so hashes are upgraded as users sign in.
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        User user = userRepository.findByEmail(userDetails.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException(
+                        "User not found with email: " + userDetails.getUsername()));
+        user.setPassword(newPassword);
+        UserDetails updated = toUserDetails(userRepository.save(user));
+        evictCachedPrincipal(user.getEmail());
+        return updated;
+    }
+
+    // Tokens verified before the change would keep serving the old details until the cache TTL runs out
+    private void evictCachedPrincipal(String email) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            principalCache.evict(email);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                principalCache.evict(email);
+            }
+        });
+    }
 
+    private UserDetails toUserDetails(User user) {
         return org.springframework.security.core.userdetails.User
                 .withUsername(user.getEmail())
                 .password(user.getPassword())
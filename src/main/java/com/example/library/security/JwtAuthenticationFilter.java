@@ -1,5 +1,7 @@
 package com.example.library.security;
 
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -15,6 +17,7 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
 @Component
 @RequiredArgsConstructor
@@ -22,17 +25,29 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider tokenProvider;
     private final UserDetailsService userDetailsService;
+    private final VerifiedPrincipalCache principalCache;
+    private final MeterRegistry meterRegistry;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
+        long start = System.nanoTime();
+        String outcome = "anonymous";
         try {
             String jwt = getJwtFromRequest(request);
 
-            if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
-                String email = tokenProvider.getEmailFromToken(jwt);
-                UserDetails userDetails = userDetailsService.loadUserByUsername(email);
-                
+            UserDetails userDetails = null;
+            if (StringUtils.hasText(jwt)) {
+                userDetails = principalCache.get(jwt);
+                if (userDetails != null) {
+                    outcome = "cached";
+                } else {
+                    userDetails = verify(jwt);
+                    outcome = userDetails != null ? "verified" : "rejected";
+                }
+            }
+
+            if (userDetails != null) {
                 UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
                         userDetails, null, userDetails.getAuthorities());
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -40,12 +55,26 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 SecurityContextHolder.getContext().setAuthentication(authentication);
             }
         } catch (Exception ex) {
+            outcome = "error";
             logger.error("Could not set user authentication in security context", ex);
         }
+        meterRegistry.timer("library.security.jwt", "outcome", outcome)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
 
         filterChain.doFilter(request, response);
     }
 
+    private UserDetails verify(String jwt) {
+        Claims claims = tokenProvider.parseClaims(jwt);
+        if (claims == null) {
+            return null;
+        }
+        UserDetails userDetails = userDetailsService.loadUserByUsername(claims.getSubject());
+        long expiresAt = claims.getExpiration() != null ? claims.getExpiration().getTime() : Long.MAX_VALUE;
+        principalCache.put(jwt, userDetails, expiresAt);
+        return userDetails;
+    }
+
     private String getJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
@@ -0,0 +1,108 @@
+package com.example.library.security;
+
+import com.example.library.exception.TooManyAttemptsException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Admission control for login and registration, checked before any password is hashed so refused
+ * attempts cost no CPU. Each client address gets a number of attempts per window. Each account gets
+ * a number of failed logins per window, counted whoever sends them and cleared by a successful one.
+ * Counters are fixed windows held in memory, so limits apply per instance. Each counter expires
+ * with its window, and past the size bound the keys seen least often are evicted first, so a flood
+ * of new keys does not lift the lockouts being hit.
+ */
+@Component
+public class LoginAttemptLimiter {
+
+    @Value("${app.security.login.max-attempts-per-address:30}")
+    private int maxAttemptsPerAddress;
+
+    @Value("${app.security.login.address-window:PT1M}")
+    private Duration addressWindow;
+
+    @Value("${app.security.login.max-failures-per-account:5}")
+    private int maxFailuresPerAccount;
+
+    @Value("${app.security.login.account-window:PT15M}")
+    private Duration accountWindow;
+
+    @Value("${app.security.login.max-entries:100000}")
+    private int maxEntries;
+
+    private Cache<String, Window> addresses;
+    private Cache<String, Window> accounts;
+
+    @PostConstruct
+    void init() {
+        addresses = windows();
+        accounts = windows();
+    }
+
+    /**
+     * Counts an attempt from the address and refuses it once the address is over its limit.
+     */
+    public void checkAddress(String address) {
+        long now = System.currentTimeMillis();
+        Window window = increment(addresses, address, addressWindow, now);
+        if (window.count() > maxAttemptsPerAddress) {
+            throw new TooManyAttemptsException("Too many attempts, please retry later", retryAfter(window, now));
+        }
+    }
+
+    /**
+     * Refuses a login to an account that has failed too often, without counting it.
+     */
+    public void checkAccount(String email) {
+        long now = System.currentTimeMillis();
+        Window window = accounts.getIfPresent(key(email));
+        if (window != null && window.endsAt() > now && window.count() >= maxFailuresPerAccount) {
+            throw new TooManyAttemptsException("Too many failed logins for this account, please retry later",
+                    retryAfter(window, now));
+        }
+    }
+
+    public void recordFailure(String email) {
+        increment(accounts, key(email), accountWindow, System.currentTimeMillis());
+    }
+
+    public void recordSuccess(String email) {
+        accounts.invalidate(key(email));
+    }
+
+    public int size() {
+        return (int) (addresses.estimatedSize() + accounts.estimatedSize());
+    }
+
+    private Cache<String, Window> windows() {
+        return Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfter(Expiry.writing((String key, Window window) ->
+                        Duration.ofMillis(Math.max(0, window.endsAt() - System.currentTimeMillis()))))
+                .build();
+    }
+
+    private Window increment(Cache<String, Window> windows, String key, Duration length, long now) {
+        return windows.asMap().compute(key, (k, window) -> window == null || window.endsAt() <= now
+                ? new Window(now + length.toMillis(), 1)
+                : new Window(window.endsAt(), window.count() + 1));
+    }
+
+    private static String key(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static long retryAfter(Window window, long now) {
+        return Math.max(1, (window.endsAt() - now + 999) / 1000);
+    }
+
+    private record Window(long endsAt, int count) {
+    }
+}
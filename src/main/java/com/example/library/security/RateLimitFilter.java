@@ -0,0 +1,225 @@
+package com.example.library.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rate limits and sheds API requests. It runs after {@link JwtAuthenticationFilter}, so signed-in
+ * clients are limited by user and anonymous ones by address.
+ * <p>
+ * Each request costs a weight: one for most calls, more for searches, cover uploads and bulk
+ * import/export. Each client has a token bucket. The expensive route classes also share one bucket
+ * per class across all clients, which caps the load they can put on the database together. While
+ * the average API latency is above the shedding threshold, expensive requests are refused up front
+ * so cheap reads keep working.
+ * <p>
+ * Client limits answer 429, capacity limits and shedding answer 503, both with Retry-After.
+ */
+@Component
+@RequiredArgsConstructor
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    // Weight of the average: each completed request moves it by 1/8 of its difference
+    private static final int LATENCY_SMOOTHING = 8;
+
+    // Without a completed request for this long the average is stale, so one request is let through to probe
+    private static final long LATENCY_PROBE_INTERVAL = TimeUnit.SECONDS.toNanos(1);
+
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.rate-limit.client.rate:50}")
+    private double clientRate;
+
+    @Value("${app.rate-limit.client.burst:100}")
+    private int clientBurst;
+
+    @Value("${app.rate-limit.route.rate:500}")
+    private double routeRate;
+
+    @Value("${app.rate-limit.route.burst:1000}")
+    private int routeBurst;
+
+    @Value("${app.rate-limit.weight.search:5}")
+    private int searchWeight;
+
+    @Value("${app.rate-limit.weight.upload:10}")
+    private int uploadWeight;
+
+    @Value("${app.rate-limit.weight.bulk:20}")
+    private int bulkWeight;
+
+    @Value("${app.rate-limit.shed-latency:PT0.5S}")
+    private Duration shedLatency;
+
+    @Value("${app.rate-limit.max-clients:100000}")
+    private int maxClients;
+
+    private Cache<String, TokenBucket> clients;
+    private TokenBucket.Limit clientLimit;
+    private Map<RouteClass, TokenBucket> routes;
+    private TokenBucket.Limit routeLimit;
+
+    private final AtomicLong averageLatency = new AtomicLong();
+    private volatile long lastCompletedAt = System.nanoTime();
+
+    @PostConstruct
+    void init() {
+        clientLimit = TokenBucket.Limit.of(clientRate, clientBurst);
+        // A bucket untouched for a full refill is full again, the same as a new one, so it can go.
+        // Past the size bound the clients seen least often are evicted, so a flood of new
+        // addresses cannot push out the buckets of clients that are being throttled.
+        clients = Caffeine.newBuilder()
+                .maximumSize(maxClients)
+                .expireAfterAccess(Duration.ofNanos(clientLimit.capacity()))
+                .build();
+        routeLimit = TokenBucket.Limit.of(routeRate, routeBurst);
+        Map<RouteClass, TokenBucket> buckets = new HashMap<>();
+        for (RouteClass route : RouteClass.values()) {
+            if (route != RouteClass.DEFAULT) {
+                buckets.put(route, new TokenBucket(System.nanoTime()));
+            }
+        }
+        routes = Map.copyOf(buckets);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RouteClass route = classify(request);
+        int weight = weight(route);
+        long now = System.nanoTime();
+
+        if (route != RouteClass.DEFAULT && overloaded(now)) {
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, "shed", LATENCY_PROBE_INTERVAL,
+                    "Server is busy, please retry shortly");
+            return;
+        }
+        long wait = client(request, now).tryAcquire(now, weight, clientLimit);
+        if (wait > 0) {
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, "client", wait, "Too many requests, please slow down");
+            return;
+        }
+        TokenBucket routeBucket = routes.get(route);
+        if (routeBucket != null) {
+            wait = routeBucket.tryAcquire(now, weight, routeLimit);
+            if (wait > 0) {
+                reject(response, HttpStatus.SERVICE_UNAVAILABLE, "route", wait, "Server is busy, please retry shortly");
+                return;
+            }
+        }
+
+        if (route == RouteClass.UPLOAD || route == RouteClass.BULK) {
+            // Their duration follows the size of the transfer, not how loaded the server is
+            filterChain.doFilter(request, response);
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            recordLatency(now, System.nanoTime());
+        }
+    }
+
+    public int trackedClients() {
+        return (int) clients.estimatedSize();
+    }
+
+    private TokenBucket client(HttpServletRequest request, long now) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String key = authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken)
+                ? "user:" + authentication.getName()
+                : "address:" + request.getRemoteAddr();
+        return clients.get(key, k -> new TokenBucket(now));
+    }
+
+    RouteClass classify(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        String method = request.getMethod();
+        if (path.equals("/api/books/import") || path.equals("/api/books/export")) {
+            return RouteClass.BULK;
+        }
+        if ("GET".equals(method) && (path.equals("/api/books/title") || path.endsWith("/search")
+                || path.equals("/api/books") && StringUtils.hasText(request.getParameter("searchTerm")))) {
+            return RouteClass.SEARCH;
+        }
+        String contentType = request.getContentType();
+        if (contentType != null && contentType.startsWith(MediaType.MULTIPART_FORM_DATA_VALUE)) {
+            return RouteClass.UPLOAD;
+        }
+        return RouteClass.DEFAULT;
+    }
+
+    private int weight(RouteClass route) {
+        return switch (route) {
+            case SEARCH -> searchWeight;
+            case UPLOAD -> uploadWeight;
+            case BULK -> bulkWeight;
+            case DEFAULT -> 1;
+        };
+    }
+
+    private boolean overloaded(long now) {
+        return averageLatency.get() > shedLatency.toNanos() && now - lastCompletedAt < LATENCY_PROBE_INTERVAL;
+    }
+
+    private void recordLatency(long startedAt, long completedAt) {
+        averageLatency.accumulateAndGet(completedAt - startedAt,
+                (average, sample) -> average + (sample - average) / LATENCY_SMOOTHING);
+        lastCompletedAt = completedAt;
+    }
+
+    private void reject(HttpServletResponse response, HttpStatus status, String reason, long waitNanos,
+                        String message) throws IOException {
+        meterRegistry.counter("library.ratelimit.rejected", "reason", reason).increment();
+        long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        Map<String, Object> body = new HashMap<>();
+        body.put("timestamp", LocalDateTime.now());
+        body.put("status", status.value());
+        body.put("error", status.getReasonPhrase());
+        body.put("message", message);
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+
+    enum RouteClass {
+        DEFAULT, SEARCH, UPLOAD, BULK
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.library.security;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A token bucket kept as a single timestamp, the generic cell rate algorithm: the bucket is empty
+ * at {@code emptyAt} and refills one token per interval. Acquiring is one compare-and-set, so
+ * concurrent requests never block each other, and an idle bucket costs one object.
+ */
+class TokenBucket {
+
+    private final AtomicLong emptyAt;
+
+    TokenBucket(long now) {
+        this.emptyAt = new AtomicLong(now);
+    }
+
+    /**
+     * Takes {@code tokens} from the bucket. Returns 0 when they were taken, otherwise how many
+     * nanoseconds to wait until they would be available; nothing is taken in that case.
+     */
+    long tryAcquire(long now, int tokens, Limit limit) {
+        while (true) {
+            long current = emptyAt.get();
+            long next = Math.max(current, now) + tokens * limit.interval();
+            long wait = next - limit.capacity() - now;
+            if (wait > 0) {
+                return wait;
+            }
+            if (emptyAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Refill interval and capacity, both in nanoseconds of refill.
+     */
+    record Limit(long interval, long capacity) {
+
+        static Limit of(double tokensPerSecond, int burst) {
+            long interval = (long) (TimeUnit.SECONDS.toNanos(1) / tokensPerSecond);
+            return new Limit(interval, burst * interval);
+        }
+    }
+}
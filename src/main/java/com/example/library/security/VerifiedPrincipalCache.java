@@ -0,0 +1,68 @@
+package com.example.library.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+
+/**
+ * Remembers the principal behind a token that already passed signature verification,
+ * keyed by a digest of the token so raw tokens are never held in memory. An entry lives
+ * until the token expires or the configured TTL passes, whichever comes first, so role
+ * changes and account removal are picked up within the TTL. Past the size bound the least
+ * used entries are evicted first.
+ */
+@Component
+public class VerifiedPrincipalCache {
+
+    private final Cache<String, Entry> entries;
+    private final long ttlMs;
+
+    public VerifiedPrincipalCache(@Value("${app.jwt.principal-cache.ttl-ms:300000}") long ttlMs,
+                                  @Value("${app.jwt.principal-cache.max-entries:10000}") long maxEntries) {
+        this.ttlMs = ttlMs;
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfter(Expiry.writing((String key, Entry entry) ->
+                        Duration.ofMillis(Math.max(0, entry.expiresAt() - System.currentTimeMillis()))))
+                .build();
+    }
+
+    public UserDetails get(String token) {
+        Entry entry = entries.getIfPresent(digest(token));
+        return entry == null ? null : entry.userDetails();
+    }
+
+    public void put(String token, UserDetails userDetails, long tokenExpiresAt) {
+        long expiresAt = Math.min(tokenExpiresAt, System.currentTimeMillis() + ttlMs);
+        entries.put(digest(token), new Entry(userDetails, expiresAt));
+    }
+
+    public void evict(String username) {
+        entries.asMap().values().removeIf(entry -> entry.userDetails().getUsername().equals(username));
+    }
+
+    public int size() {
+        return (int) entries.estimatedSize();
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private record Entry(UserDetails userDetails, long expiresAt) {
+    }
+}
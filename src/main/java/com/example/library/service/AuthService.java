@@ -5,6 +5,6 @@ import com.example.library.dto.LoginRequest;
 import com.example.library.dto.RegisterRequest;
 
 public interface AuthService {
-    AuthResponse register(RegisterRequest request);
-    AuthResponse login(LoginRequest request);
+    AuthResponse register(RegisterRequest request, String clientAddress);
+    AuthResponse login(LoginRequest request, String clientAddress);
 } 
\ No newline at end of file
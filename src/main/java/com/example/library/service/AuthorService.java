@@ -1,9 +1,13 @@
 package com.example.library.service;
 
+import com.example.library.dto.CursorPage;
 import com.example.library.entity.Author;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.time.LocalDateTime;
+import java.util.Optional;
+
 public interface AuthorService {
     Author createAuthor(Author author);
     
@@ -12,10 +16,19 @@ public interface AuthorService {
     void deleteAuthor(Long id);
     
     Author getAuthorById(Long id);
+
+    /**
+     * When the author was last written, without loading it; empty if it does not exist.
+     */
+    Optional<LocalDateTime> getLastModified(Long id);
     
     Page<Author> getAllAuthors(Pageable pageable);
     
     Page<Author> searchAuthors(String searchTerm, Pageable pageable);
     
     boolean existsByName(String name);
+
+    Author findOrCreateByName(String name, String defaultDescription);
+
+    CursorPage<Author> scrollAuthors(String cursor, int size);
 } 
\ No newline at end of file
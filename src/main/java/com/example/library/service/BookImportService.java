@@ -0,0 +1,11 @@
+package com.example.library.service;
+
+import com.example.library.dto.BookImportResult;
+import com.example.library.dto.ImportFormat;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface BookImportService {
+    BookImportResult importBooks(InputStream input, ImportFormat format) throws IOException;
+}
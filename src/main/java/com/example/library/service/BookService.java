@@ -1,10 +1,15 @@
 package com.example.library.service;
 
+import com.example.library.dto.CursorPage;
 import com.example.library.entity.Book;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.time.LocalDateTime;
+import java.util.Optional;
+
 public interface BookService {
     Book createBook(Book book, MultipartFile coverImage);
     
@@ -13,6 +18,12 @@ public interface BookService {
     void deleteBook(Long id);
     
     Book getBookById(Long id);
+
+    /**
+     * When the book, its genre or one of its authors was last written, without loading the book;
+     * empty if it does not exist.
+     */
+    Optional<LocalDateTime> getLastModified(Long id);
     
     Page<Book> getAllBooks(String searchTerm, Pageable pageable);
     
@@ -23,4 +34,10 @@ public interface BookService {
     Page<Book> findByTitle(String title, Pageable pageable);
     
     boolean existsByIsbn(String isbn);
+
+    CursorPage<Book> scrollBooks(String cursor, int size, Sort.Direction titleDirection);
+
+    CursorPage<Book> scrollByGenre(Long genreId, String cursor, int size);
+
+    CursorPage<Book> scrollByAuthor(Long authorId, String cursor, int size);
 } 
\ No newline at end of file
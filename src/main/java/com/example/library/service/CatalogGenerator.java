@@ -0,0 +1,11 @@
+package com.example.library.service;
+
+/**
+ * Generates synthetic catalogs for load testing, written directly with multi-row JDBC inserts.
+ */
+public interface CatalogGenerator {
+    Result generate(int genres, int authors, long books);
+
+    record Result(int genres, int authors, long books, long elapsedMs) {
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.library.service;
+
+public interface CatalogVersionService {
+
+    /**
+     * Version of the catalog as a whole, changing whenever a book, author or genre is written.
+     */
+    long currentVersion();
+}
@@ -0,0 +1,13 @@
+package com.example.library.service;
+
+public interface CoverGarbageCollector {
+    Report collect(boolean dryRun);
+
+    record Report(boolean dryRun, long scanned, long referenced, long skipped, long orphaned, long deleted,
+                  long reclaimedBytes) {
+
+        public static Report empty(boolean dryRun) {
+            return new Report(dryRun, 0, 0, 0, 0, 0, 0);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.library.service;
+
+import org.springframework.web.multipart.MultipartFile;
+
+import java.nio.file.Path;
+
+/**
+ * Covers are written in two steps so no transaction is open while an upload is copied:
+ * {@link #stage} copies the upload aside and names it, and once the book row is committed
+ * {@link #commit} moves it into place, or {@link #discard} drops it if the write failed.
+ */
+public interface CoverImageService {
+    StagedCover stage(MultipartFile file);
+
+    void commit(StagedCover cover);
+
+    void discard(StagedCover cover);
+
+    void delete(String fileName);
+
+    Path getStorageLocation();
+
+    record StagedCover(String fileName, Path stagedFile) {
+    }
+}
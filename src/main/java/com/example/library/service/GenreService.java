@@ -1,10 +1,13 @@
 package com.example.library.service;
 
+import com.example.library.dto.CursorPage;
 import com.example.library.entity.Genre;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 public interface GenreService {
     Genre createGenre(Genre genre);
@@ -14,6 +17,11 @@ public interface GenreService {
     void deleteGenre(Long id);
     
     Genre getGenreById(Long id);
+
+    /**
+     * When the genre was last written, without loading it; empty if it does not exist.
+     */
+    Optional<LocalDateTime> getLastModified(Long id);
     
     Page<Genre> getAllGenres(Pageable pageable);
     
@@ -21,5 +29,9 @@ public interface GenreService {
     
     boolean existsByName(String name);
 
+    Genre findOrCreateByName(String name, String defaultDescription);
+
+    CursorPage<Genre> scrollGenres(String cursor, int size);
+
     List<Genre> findAll();
 } 
\ No newline at end of file
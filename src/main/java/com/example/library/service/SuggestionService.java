@@ -0,0 +1,13 @@
+package com.example.library.service;
+
+import com.example.library.dto.Suggestion;
+
+import java.util.List;
+
+public interface SuggestionService {
+
+    /**
+     * Typeahead completions for a partly typed book title, author name or genre name, best first.
+     */
+    List<Suggestion> suggest(String query, int limit);
+}
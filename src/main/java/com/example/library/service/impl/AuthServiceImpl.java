@@ -9,15 +9,19 @@ import com.example.library.repository.RoleRepository;
 import com.example.library.repository.UserRepository;
 import com.example.library.service.AuthService;
 import com.example.library.security.JwtTokenProvider;
+import com.example.library.security.LoginAttemptLimiter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.HashSet;
 import java.util.Set;
@@ -32,10 +36,17 @@ public class AuthServiceImpl implements AuthService {
     private final PasswordEncoder passwordEncoder;
     private final AuthenticationManager authenticationManager;
     private final JwtTokenProvider jwtTokenProvider;
+    private final LoginAttemptLimiter loginAttemptLimiter;
+    private final TransactionTemplate transactionTemplate;
 
+    // Login and registration hash the password outside any transaction, with short transactions before and after,
+    // so a login burst cannot starve catalog reads of pooled connections. A repository call made directly in the
+    // NOT_SUPPORTED scope would bind an EntityManager that keeps its connection until the method returns
     @Override
-    public AuthResponse register(RegisterRequest request) {
-        if (userRepository.existsByEmail(request.getEmail())) {
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public AuthResponse register(RegisterRequest request, String clientAddress) {
+        loginAttemptLimiter.checkAddress(clientAddress);
+        if (Boolean.TRUE.equals(transactionTemplate.execute(status -> userRepository.existsByEmail(request.getEmail())))) {
             throw new BadCredentialsException("Email already exists");
         }
 
@@ -44,35 +55,51 @@ public class AuthServiceImpl implements AuthService {
         user.setEmail(request.getEmail());
         user.setPassword(passwordEncoder.encode(request.getPassword()));
 
-        // Set default role as USER
-        Role userRole = roleRepository.findByName("ROLE_USER")
-                .orElseThrow(() -> new RuntimeException("Default role not found"));
-        Set<Role> roles = new HashSet<>();
-        roles.add(userRole);
-        user.setRoles(roles);
+        transactionTemplate.executeWithoutResult(status -> {
+            // Set default role as USER
+            Role userRole = roleRepository.findByName("ROLE_USER")
+                    .orElseThrow(() -> new RuntimeException("Default role not found"));
+            Set<Role> roles = new HashSet<>();
+            roles.add(userRole);
+            user.setRoles(roles);
 
-        userRepository.save(user);
+            userRepository.save(user);
+        });
 
         String token = jwtTokenProvider.generateToken(user.getEmail());
         return new AuthResponse(token, user.getName(), user.getEmail(), "USER");
     }
 
     @Override
-    public AuthResponse login(LoginRequest request) {
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(request.getEmail(), request.getPassword())
-        );
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public AuthResponse login(LoginRequest request, String clientAddress) {
+        // Refused attempts are turned away here, before the password is hashed
+        loginAttemptLimiter.checkAddress(clientAddress);
+        loginAttemptLimiter.checkAccount(request.getEmail());
+
+        Authentication authentication;
+        try {
+            authentication = authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(request.getEmail(), request.getPassword())
+            );
+        } catch (AuthenticationException e) {
+            loginAttemptLimiter.recordFailure(request.getEmail());
+            throw e;
+        }
+        loginAttemptLimiter.recordSuccess(request.getEmail());
 
         SecurityContextHolder.getContext().setAuthentication(authentication);
-        User user = userRepository.findByEmail(request.getEmail())
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        return transactionTemplate.execute(status -> {
+            User user = userRepository.findByEmail(request.getEmail())
+                    .orElseThrow(() -> new RuntimeException("User not found"));
 
-        String token = jwtTokenProvider.generateToken(user.getEmail());
-        String role = user.getRoles().stream()
-                .findFirst()
-                .map(r -> r.getName().replace("ROLE_", ""))
-                .orElse("USER");
+            String token = jwtTokenProvider.generateToken(user.getEmail());
+            String role = user.getRoles().stream()
+                    .findFirst()
+                    .map(r -> r.getName().replace("ROLE_", ""))
+                    .orElse("USER");
 
-        return new AuthResponse(token, user.getName(), user.getEmail(), role);
+            return new AuthResponse(token, user.getName(), user.getEmail(), role);
+        });
     }
 } 
\ No newline at end of file
@@ -1,25 +1,42 @@
 package com.example.library.service.impl;
 
+import com.example.library.config.CacheConfig;
+import com.example.library.dto.CursorPage;
 import com.example.library.entity.Author;
+import com.example.library.event.AuthorChangedEvent;
+import com.example.library.event.ChangeType;
 import com.example.library.repository.AuthorRepository;
 import com.example.library.service.AuthorService;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Optional;
+
 @Service
 @RequiredArgsConstructor
 @Transactional
 public class AuthorServiceImpl implements AuthorService {
 
     private final AuthorRepository authorRepository;
+    private final CacheManager cacheManager;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public Author createAuthor(Author author) {
-        return authorRepository.save(author);
+        Author savedAuthor = authorRepository.save(author);
+        eventPublisher.publishEvent(new AuthorChangedEvent(ChangeType.CREATED, savedAuthor.getId(), savedAuthor));
+        return savedAuthor;
     }
 
     @Override
@@ -27,10 +44,16 @@ public class AuthorServiceImpl implements AuthorService {
         Author existingAuthor = authorRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Author not found with id: " + id));
 
+        Cache authorsByName = cache(CacheConfig.AUTHORS_BY_NAME);
+        authorsByName.evict(existingAuthor.getName());
+        authorsByName.evict(author.getName());
+
         existingAuthor.setName(author.getName());
-        existingAuthor.setBiography(author.getBiography());
+        existingAuthor.setDescription(author.getDescription());
 
-        return authorRepository.save(existingAuthor);
+        Author savedAuthor = authorRepository.save(existingAuthor);
+        eventPublisher.publishEvent(new AuthorChangedEvent(ChangeType.UPDATED, id, savedAuthor));
+        return savedAuthor;
     }
 
     @Override
@@ -38,6 +61,8 @@ public class AuthorServiceImpl implements AuthorService {
         Author author = authorRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Author not found with id: " + id));
         authorRepository.delete(author);
+        cache(CacheConfig.AUTHORS_BY_NAME).evict(author.getName());
+        eventPublisher.publishEvent(new AuthorChangedEvent(ChangeType.DELETED, id, null));
     }
 
     @Override
@@ -47,6 +72,12 @@ public class AuthorServiceImpl implements AuthorService {
                 .orElseThrow(() -> new EntityNotFoundException("Author not found with id: " + id));
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<LocalDateTime> getLastModified(Long id) {
+        return authorRepository.findUpdatedAtById(id);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Page<Author> getAllAuthors(Pageable pageable) {
@@ -64,4 +95,38 @@ public class AuthorServiceImpl implements AuthorService {
     public boolean existsByName(String name) {
         return authorRepository.existsByName(name);
     }
-} 
\ No newline at end of file
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<Author> scrollAuthors(String cursor, int size) {
+        CursorPage.Position position = CursorPage.decodeCursor(cursor);
+        Slice<Author> slice = authorRepository.findByIdGreaterThan(position != null ? position.id() : 0L,
+                CursorPage.sliceRequest(size, Sort.by("id")));
+        return CursorPage.of(slice.getContent(), slice.hasNext(), Author::getId, null);
+    }
+
+    @Override
+    public Author findOrCreateByName(String name, String defaultDescription) {
+        Cache authorsByName = cache(CacheConfig.AUTHORS_BY_NAME);
+        Author cached = authorsByName.get(name, Author.class);
+        if (cached != null) {
+            return cached;
+        }
+
+        Optional<Author> existing = authorRepository.findByName(name);
+        if (existing.isPresent()) {
+            authorsByName.put(name, existing.get());
+            return existing.get();
+        }
+
+        Author author = new Author();
+        author.setName(name);
+        author.setDescription(defaultDescription);
+        return createAuthor(author);
+    }
+
+    // Puts and evictions take effect only after the surrounding transaction commits
+    private Cache cache(String name) {
+        return new TransactionAwareCacheDecorator(cacheManager.getCache(name));
+    }
+}
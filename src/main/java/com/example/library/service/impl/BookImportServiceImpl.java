@@ -0,0 +1,346 @@
+package com.example.library.service.impl;
+
+import com.example.library.dto.BookImportError;
+import com.example.library.dto.BookImportResult;
+import com.example.library.dto.BookImportRow;
+import com.example.library.dto.ImportFormat;
+import com.example.library.entity.Author;
+import com.example.library.entity.Book;
+import com.example.library.entity.Genre;
+import com.example.library.event.BookChangedEvent;
+import com.example.library.event.ChangeType;
+import com.example.library.service.AuthorService;
+import com.example.library.service.BookImportService;
+import com.example.library.service.GenreService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Streams CSV or JSON-lines input and writes books in JDBC batches, one transaction per batch.
+ * Books keep their IDENTITY ids: each batch is inserted with a batched statement and the
+ * generated ids are read back by ISBN before the book_author rows are written.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BookImportServiceImpl implements BookImportService {
+
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    private static final String INSERT_BOOK_SQL =
+            "INSERT INTO books (title, description, isbn, publish_date, genre_id, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_BOOK_AUTHOR_SQL = "INSERT INTO book_author (book_id, author_id) VALUES (?, ?)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AuthorService authorService;
+    private final GenreService genreService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.import.batch-size:1000}")
+    private int batchSize;
+
+    @Override
+    public BookImportResult importBooks(InputStream input, ImportFormat format) throws IOException {
+        BookImportResult result = new BookImportResult();
+        Map<String, Long> authorIds = loadDictionary("SELECT id, name FROM authors");
+        Map<String, Long> genreIds = loadDictionary("SELECT id, name FROM genres");
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            long lineNumber = 0;
+            Map<String, Integer> csvColumns = null;
+            if (format == ImportFormat.CSV) {
+                String header = reader.readLine();
+                lineNumber++;
+                if (header == null) {
+                    return result;
+                }
+                csvColumns = parseHeader(header);
+            }
+
+            List<PendingRow> batch = new ArrayList<>(batchSize);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                result.setProcessed(result.getProcessed() + 1);
+
+                BookImportRow row;
+                try {
+                    row = format == ImportFormat.CSV
+                            ? parseCsvRow(line, csvColumns)
+                            : objectMapper.readValue(line, BookImportRow.class);
+                    validate(row);
+                } catch (IOException | IllegalArgumentException ex) {
+                    recordError(result, new BookImportError(lineNumber, null, ex.getMessage()));
+                    continue;
+                }
+
+                batch.add(new PendingRow(lineNumber, row));
+                if (batch.size() >= batchSize) {
+                    writeBatch(batch, authorIds, genreIds, result);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                writeBatch(batch, authorIds, genreIds, result);
+            }
+        }
+
+        log.info("Book import finished: {} processed, {} imported, {} failed",
+                result.getProcessed(), result.getImported(), result.getFailed());
+        return result;
+    }
+
+    private void writeBatch(List<PendingRow> batch, Map<String, Long> authorIds, Map<String, Long> genreIds,
+                            BookImportResult result) {
+        Set<String> createdNames = new HashSet<>();
+        try {
+            List<BookImportError> rejected = new ArrayList<>();
+            Integer imported = transactionTemplate.execute(status ->
+                    insertBatch(batch, authorIds, genreIds, createdNames, rejected));
+            result.setImported(result.getImported() + (imported != null ? imported : 0));
+            rejected.forEach(error -> recordError(result, error));
+        } catch (RuntimeException ex) {
+            log.warn("Book import batch ending at line {} failed", batch.get(batch.size() - 1).line(), ex);
+            // Authors and genres created by the rolled back batch no longer exist
+            authorIds.keySet().removeAll(createdNames);
+            genreIds.keySet().removeAll(createdNames);
+            for (PendingRow row : batch) {
+                recordError(result, new BookImportError(row.line(), row.data().getIsbn(), "Batch failed: " + ex.getMessage()));
+            }
+        }
+        log.info("Book import progress: {} processed, {} imported, {} failed",
+                result.getProcessed(), result.getImported(), result.getFailed());
+    }
+
+    private int insertBatch(List<PendingRow> batch, Map<String, Long> authorIds, Map<String, Long> genreIds,
+                            Set<String> createdNames, List<BookImportError> rejected) {
+        Set<String> isbns = new HashSet<>();
+        for (PendingRow row : batch) {
+            isbns.add(row.data().getIsbn());
+        }
+        Set<String> existingIsbns = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT isbn FROM books WHERE isbn IN (:isbns)", Map.of("isbns", isbns), String.class));
+
+        List<PendingRow> accepted = new ArrayList<>(batch.size());
+        Set<String> seenIsbns = new HashSet<>();
+        for (PendingRow row : batch) {
+            String isbn = row.data().getIsbn();
+            if (existingIsbns.contains(isbn) || !seenIsbns.add(isbn)) {
+                rejected.add(new BookImportError(row.line(), isbn, "Book with this ISBN already exists"));
+            } else {
+                accepted.add(row);
+            }
+        }
+        if (accepted.isEmpty()) {
+            return 0;
+        }
+
+        Map<PendingRow, Long> rowGenreIds = new HashMap<>();
+        Map<PendingRow, Long> rowAuthorIds = new HashMap<>();
+        for (PendingRow row : accepted) {
+            rowGenreIds.put(row, resolveGenre(row.data().getGenre(), genreIds, createdNames));
+            rowAuthorIds.put(row, resolveAuthor(row.data().getAuthor(), authorIds, createdNames));
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.getJdbcOperations().batchUpdate(INSERT_BOOK_SQL, accepted, accepted.size(), (ps, row) -> {
+            BookImportRow data = row.data();
+            ps.setString(1, data.getTitle());
+            ps.setString(2, data.getDescription());
+            ps.setString(3, data.getIsbn());
+            ps.setObject(4, data.getPublishedYear() != null
+                    ? LocalDateTime.of(data.getPublishedYear(), 1, 1, 0, 0) : null);
+            ps.setLong(5, rowGenreIds.get(row));
+            ps.setObject(6, now);
+            ps.setObject(7, now);
+        });
+
+        Map<String, Long> bookIds = new HashMap<>();
+        jdbcTemplate.query("SELECT id, isbn FROM books WHERE isbn IN (:isbns)", Map.of("isbns", seenIsbns),
+                (RowCallbackHandler) rs -> bookIds.put(rs.getString("isbn"), rs.getLong("id")));
+
+        jdbcTemplate.getJdbcOperations().batchUpdate(INSERT_BOOK_AUTHOR_SQL, accepted, accepted.size(), (ps, row) -> {
+            ps.setLong(1, bookIds.get(row.data().getIsbn()));
+            ps.setLong(2, rowAuthorIds.get(row));
+        });
+
+        for (PendingRow row : accepted) {
+            Book book = toBook(row.data(), bookIds.get(row.data().getIsbn()),
+                    rowGenreIds.get(row), rowAuthorIds.get(row));
+            eventPublisher.publishEvent(new BookChangedEvent(ChangeType.CREATED, book.getId(), book));
+        }
+        return accepted.size();
+    }
+
+    private Long resolveGenre(String name, Map<String, Long> genreIds, Set<String> createdNames) {
+        Long genreId = genreIds.get(name);
+        if (genreId == null) {
+            genreId = genreService.findOrCreateByName(name, "Genre description").getId();
+            genreIds.put(name, genreId);
+            createdNames.add(name);
+        }
+        return genreId;
+    }
+
+    private Long resolveAuthor(String name, Map<String, Long> authorIds, Set<String> createdNames) {
+        Long authorId = authorIds.get(name);
+        if (authorId == null) {
+            authorId = authorService.findOrCreateByName(name, "Author biography").getId();
+            authorIds.put(name, authorId);
+            createdNames.add(name);
+        }
+        return authorId;
+    }
+
+    private Book toBook(BookImportRow data, Long bookId, Long genreId, Long authorId) {
+        Genre genre = new Genre();
+        genre.setId(genreId);
+        genre.setName(data.getGenre());
+        Author author = new Author();
+        author.setId(authorId);
+        author.setName(data.getAuthor());
+
+        Book book = new Book();
+        book.setId(bookId);
+        book.setTitle(data.getTitle());
+        book.setDescription(data.getDescription());
+        book.setIsbn(data.getIsbn());
+        book.setGenre(genre);
+        book.setAuthors(Set.of(author));
+        return book;
+    }
+
+    private Map<String, Long> loadDictionary(String sql) {
+        Map<String, Long> dictionary = new HashMap<>();
+        jdbcTemplate.getJdbcOperations().query(sql,
+                (RowCallbackHandler) rs -> dictionary.putIfAbsent(rs.getString("name"), rs.getLong("id")));
+        return dictionary;
+    }
+
+    private void validate(BookImportRow row) {
+        if (!StringUtils.hasText(row.getTitle())) {
+            throw new IllegalArgumentException("Title is required");
+        }
+        if (!StringUtils.hasText(row.getIsbn())) {
+            throw new IllegalArgumentException("ISBN is required");
+        }
+        if (!StringUtils.hasText(row.getAuthor())) {
+            throw new IllegalArgumentException("Author is required");
+        }
+        if (!StringUtils.hasText(row.getGenre())) {
+            throw new IllegalArgumentException("Genre is required");
+        }
+        if (row.getDescription() != null && row.getDescription().length() > 1000) {
+            throw new IllegalArgumentException("Description must be at most 1000 characters");
+        }
+    }
+
+    private void recordError(BookImportResult result, BookImportError error) {
+        result.setFailed(result.getFailed() + 1);
+        if (result.getErrors().size() < MAX_REPORTED_ERRORS) {
+            result.getErrors().add(error);
+        } else {
+            result.setErrorsTruncated(true);
+        }
+    }
+
+    private Map<String, Integer> parseHeader(String header) {
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> names = splitCsvLine(header);
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        return columns;
+    }
+
+    private BookImportRow parseCsvRow(String line, Map<String, Integer> columns) {
+        List<String> values = splitCsvLine(line);
+        BookImportRow row = new BookImportRow();
+        row.setTitle(column(values, columns, "title"));
+        row.setDescription(column(values, columns, "description"));
+        row.setIsbn(column(values, columns, "isbn"));
+        row.setAuthor(column(values, columns, "author"));
+        row.setGenre(column(values, columns, "genre"));
+        String publishedYear = column(values, columns, "publishedyear");
+        if (StringUtils.hasText(publishedYear)) {
+            try {
+                row.setPublishedYear(Integer.parseInt(publishedYear.trim()));
+            } catch (NumberFormatException ex) {
+                throw new IllegalArgumentException("Invalid publishedYear: " + publishedYear);
+            }
+        }
+        return row;
+    }
+
+    private String column(List<String> values, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= values.size()) {
+            return null;
+        }
+        String value = values.get(index);
+        return value.isEmpty() ? null : value;
+    }
+
+    // RFC 4180 fields on a single line: quoted fields may contain commas and doubled quotes
+    private List<String> splitCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private record PendingRow(long line, BookImportRow data) {
+    }
+}
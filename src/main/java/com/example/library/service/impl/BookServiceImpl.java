@@ -1,111 +1,174 @@
 package com.example.library.service.impl;
 
+import com.example.library.dto.CursorPage;
 import com.example.library.entity.Book;
+import com.example.library.event.BookChangedEvent;
+import com.example.library.event.ChangeType;
 import com.example.library.repository.BookRepository;
+import com.example.library.search.BookSearchIndex;
+import com.example.library.search.SearchResultCache;
 import com.example.library.service.BookService;
+import com.example.library.service.CoverImageService;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.util.UUID;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Transactional
 public class BookServiceImpl implements BookService {
 
+    private static final int MAX_SORTED_MATCHES = 500;
+
     private final BookRepository bookRepository;
-    private final Path fileStorageLocation = Paths.get("uploads/covers").toAbsolutePath().normalize();
+    private final BookSearchIndex bookSearchIndex;
+    private final SearchResultCache searchResultCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CoverImageService coverImageService;
+    private final TransactionTemplate transactionTemplate;
 
+    // Cover uploads are staged before the transaction starts, so the copy never holds a pooled connection.
+    // This relies on spring.jpa.open-in-view=false: the request-scoped EntityManager would otherwise keep the
+    // connection the controller's author and genre lookups acquired
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Book createBook(Book book, MultipartFile coverImage) {
-        if (coverImage != null && !coverImage.isEmpty()) {
-            String fileName = saveCoverImage(coverImage);
-            book.setCoverImagePath(fileName);
-        }
-        return bookRepository.save(book);
+        return writeWithCover(coverImage, cover -> {
+            if (cover != null) {
+                book.setCoverImagePath(cover.fileName());
+            }
+            Book savedBook = bookRepository.save(book);
+            eventPublisher.publishEvent(new BookChangedEvent(ChangeType.CREATED, savedBook.getId(), savedBook));
+            return savedBook;
+        });
     }
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Book updateBook(Long id, Book book, MultipartFile coverImage) {
-        Book existingBook = bookRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("Book not found with id: " + id));
+        return writeWithCover(coverImage, cover -> {
+            Book existingBook = bookRepository.findById(id)
+                    .orElseThrow(() -> new EntityNotFoundException("Book not found with id: " + id));
 
-        if (coverImage != null && !coverImage.isEmpty()) {
-            String fileName = saveCoverImage(coverImage);
-            book.setCoverImagePath(fileName);
-        }
-
-        existingBook.setTitle(book.getTitle());
-        existingBook.setDescription(book.getDescription());
-        existingBook.setIsbn(book.getIsbn());
-        existingBook.setPublishDate(book.getPublishDate());
-        existingBook.setGenre(book.getGenre());
-        existingBook.setAuthors(book.getAuthors());
-        if (book.getCoverImagePath() != null) {
-            existingBook.setCoverImagePath(book.getCoverImagePath());
-        }
+            existingBook.setTitle(book.getTitle());
+            existingBook.setDescription(book.getDescription());
+            existingBook.setIsbn(book.getIsbn());
+            existingBook.setPublishDate(book.getPublishDate());
+            existingBook.setGenre(book.getGenre());
+            existingBook.setAuthors(book.getAuthors());
+            // @PreUpdate misses changes that only touch the author links, and conditional reads rely on updatedAt
+            existingBook.setUpdatedAt(LocalDateTime.now());
+            if (cover != null) {
+                existingBook.setCoverImagePath(cover.fileName());
+            } else if (book.getCoverImagePath() != null) {
+                existingBook.setCoverImagePath(book.getCoverImagePath());
+            }
 
-        return bookRepository.save(existingBook);
+            Book savedBook = bookRepository.save(existingBook);
+            eventPublisher.publishEvent(new BookChangedEvent(ChangeType.UPDATED, savedBook.getId(), savedBook));
+            return savedBook;
+        });
     }
 
     @Override
     public void deleteBook(Long id) {
         Book book = bookRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Book not found with id: " + id));
-        
-        if (book.getCoverImagePath() != null) {
-            try {
-                Files.deleteIfExists(fileStorageLocation.resolve(book.getCoverImagePath()));
-            } catch (IOException e) {
-                // Log the error but continue with book deletion
-                e.printStackTrace();
-            }
-        }
-        
+
+        String coverImagePath = book.getCoverImagePath();
         bookRepository.delete(book);
+        // Covers are content-addressed, so another book may share the same file
+        if (coverImagePath != null && !bookRepository.existsByCoverImagePathAndIdNot(coverImagePath, id)) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    coverImageService.delete(coverImagePath);
+                }
+            });
+        }
+        eventPublisher.publishEvent(new BookChangedEvent(ChangeType.DELETED, id, null));
     }
 
     @Override
     @Transactional(readOnly = true)
     public Book getBookById(Long id) {
-        return bookRepository.findById(id)
+        return bookRepository.findDetailedById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Book not found with id: " + id));
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<LocalDateTime> getLastModified(Long id) {
+        return bookRepository.findVersionById(id)
+                .map(version -> Stream.of(version.getBookUpdatedAt(), version.getGenreUpdatedAt(),
+                                version.getAuthorsUpdatedAt())
+                        .filter(Objects::nonNull)
+                        .max(Comparator.naturalOrder())
+                        .orElse(null));
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Page<Book> getAllBooks(String searchTerm, Pageable pageable) {
-        if (searchTerm != null && !searchTerm.isEmpty()) {
-            return bookRepository.searchBooks(searchTerm, pageable);
+        String term = SearchResultCache.normalize(searchTerm);
+        if (term.isEmpty()) {
+            return withAuthors(bookRepository.findAll(pageable));
+        }
+        boolean indexed = bookSearchIndex.isReady();
+        if (pageable.isUnpaged()) {
+            return search(term, pageable, indexed);
+        }
+
+        SearchResultCache.Key key = searchResultCache.key(term, pageable, indexed);
+        SearchResultCache.Entry cached = searchResultCache.get(key);
+        if (cached != null) {
+            List<Long> ids = Arrays.stream(cached.ids()).boxed().collect(Collectors.toList());
+            return new PageImpl<>(loadInOrder(ids), pageable, cached.total());
         }
-        return bookRepository.findAll(pageable);
+        Page<Book> page = search(term, pageable, indexed);
+        searchResultCache.put(key, page.map(Book::getId).getContent(), page.getTotalElements());
+        return page;
     }
 
     @Override
     @Transactional(readOnly = true)
     public Page<Book> findByGenre(Long genreId, Pageable pageable) {
-        return bookRepository.findByGenreId(genreId, pageable);
+        return withAuthors(bookRepository.findByGenreId(genreId, pageable));
     }
 
     @Override
     @Transactional(readOnly = true)
     public Page<Book> findByAuthor(Long authorId, Pageable pageable) {
-        return bookRepository.findByAuthorId(authorId, pageable);
+        return withAuthors(bookRepository.findByAuthorId(authorId, pageable));
     }
 
     @Override
     @Transactional(readOnly = true)
     public Page<Book> findByTitle(String title, Pageable pageable) {
-        return bookRepository.findByTitleContainingIgnoreCase(title, pageable);
+        return withAuthors(bookRepository.findByTitleContainingIgnoreCase(title, pageable));
     }
 
     @Override
@@ -114,15 +177,135 @@ public class BookServiceImpl implements BookService {
         return bookRepository.existsByIsbn(isbn);
     }
 
-    private String saveCoverImage(MultipartFile file) {
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<Book> scrollBooks(String cursor, int size, Sort.Direction titleDirection) {
+        CursorPage.Position position = CursorPage.decodeCursor(cursor);
+        if (titleDirection == null) {
+            Slice<Book> slice = bookRepository.findByIdGreaterThan(position != null ? position.id() : 0L,
+                    CursorPage.sliceRequest(size, Sort.by("id")));
+            return toCursorPage(slice, null);
+        }
+
+        Pageable request = CursorPage.sliceRequest(size, Sort.by(titleDirection, "title", "id"));
+        Slice<Book> slice;
+        if (position == null) {
+            slice = bookRepository.findByIdGreaterThan(0L, request);
+        } else if (position.value() == null) {
+            throw new IllegalArgumentException("Invalid cursor");
+        } else if (titleDirection.isAscending()) {
+            slice = bookRepository.findAfterTitle(position.value(), position.id(), request);
+        } else {
+            slice = bookRepository.findBeforeTitle(position.value(), position.id(), request);
+        }
+        return toCursorPage(slice, Book::getTitle);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<Book> scrollByGenre(Long genreId, String cursor, int size) {
+        CursorPage.Position position = CursorPage.decodeCursor(cursor);
+        return toCursorPage(bookRepository.findByGenreIdAndIdGreaterThan(genreId,
+                position != null ? position.id() : 0L, CursorPage.sliceRequest(size, Sort.by("id"))), null);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<Book> scrollByAuthor(Long authorId, String cursor, int size) {
+        CursorPage.Position position = CursorPage.decodeCursor(cursor);
+        return toCursorPage(bookRepository.findByAuthorIdAfter(authorId,
+                position != null ? position.id() : 0L, CursorPage.sliceRequest(size, Sort.by("id"))), null);
+    }
+
+    private CursorPage<Book> toCursorPage(Slice<Book> slice, Function<Book, String> sortValueOf) {
+        initializeAuthors(slice.getContent());
+        return CursorPage.of(slice.getContent(), slice.hasNext(), Book::getId, sortValueOf);
+    }
+
+    private Book writeWithCover(MultipartFile coverImage, Function<CoverImageService.StagedCover, Book> write) {
+        CoverImageService.StagedCover cover = coverImage != null && !coverImage.isEmpty()
+                ? coverImageService.stage(coverImage)
+                : null;
+        Book savedBook;
         try {
-            Files.createDirectories(fileStorageLocation);
-            String fileName = UUID.randomUUID().toString() + "_" + file.getOriginalFilename();
-            Path targetLocation = fileStorageLocation.resolve(fileName);
-            Files.copy(file.getInputStream(), targetLocation);
-            return fileName;
-        } catch (IOException ex) {
-            throw new RuntimeException("Could not store file. Please try again!", ex);
+            savedBook = transactionTemplate.execute(status -> write.apply(cover));
+        } catch (RuntimeException ex) {
+            if (cover != null) {
+                coverImageService.discard(cover);
+            }
+            throw ex;
+        }
+        if (cover != null) {
+            coverImageService.commit(cover);
+        }
+        return savedBook;
+    }
+
+    private Page<Book> withAuthors(Page<Book> page) {
+        initializeAuthors(page.getContent());
+        return page;
+    }
+
+    // Loads the authors of every listed book in one query instead of one per book
+    private void initializeAuthors(List<Book> books) {
+        if (!books.isEmpty()) {
+            bookRepository.findWithAuthorsByIdIn(books.stream().map(Book::getId).collect(Collectors.toList()));
+        }
+    }
+
+    private Page<Book> search(String term, Pageable pageable, boolean indexed) {
+        if (indexed) {
+            return searchIndexed(term, pageable);
+        }
+        return withAuthors(bookRepository.searchBooks(term, pageable));
+    }
+
+    private Page<Book> searchIndexed(String searchTerm, Pageable pageable) {
+        // An explicit sort overrides relevance ranking. The index sorts by title or id itself; other sorts are left
+        // to the database, for at most a few hundred matches rather than every match as one IN list
+        Sort sort = pageable.getSort();
+        Sort.Order first = sort.isSorted() ? sort.iterator().next() : null;
+        BookSearchIndex.Order indexOrder = first != null && sort.stream().count() == 1 ? indexOrder(first) : null;
+        List<Long> rankedIds = bookSearchIndex.search(searchTerm, indexOrder, first != null && first.isDescending());
+        if (rankedIds.isEmpty()) {
+            return Page.empty(pageable);
+        }
+        if (sort.isSorted() && indexOrder == null) {
+            if (rankedIds.size() > MAX_SORTED_MATCHES) {
+                throw new IllegalArgumentException("Searches matching more than " + MAX_SORTED_MATCHES
+                        + " books can only be sorted by title or id");
+            }
+            return withAuthors(bookRepository.findByIdIn(rankedIds, pageable));
+        }
+
+        List<Long> pageIds = rankedIds;
+        if (pageable.isPaged()) {
+            int fromIndex = (int) Math.min(pageable.getOffset(), rankedIds.size());
+            int toIndex = Math.min(fromIndex + pageable.getPageSize(), rankedIds.size());
+            pageIds = rankedIds.subList(fromIndex, toIndex);
+        }
+
+        return new PageImpl<>(loadInOrder(pageIds), pageable, rankedIds.size());
+    }
+
+    private static BookSearchIndex.Order indexOrder(Sort.Order order) {
+        return switch (order.getProperty()) {
+            case "title" -> BookSearchIndex.Order.TITLE;
+            case "id" -> BookSearchIndex.Order.ID;
+            default -> null;
+        };
+    }
+
+    // One query for the books and their authors, returned in the order of the ids
+    private List<Book> loadInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
         }
+        Map<Long, Book> booksById = bookRepository.findWithAuthorsByIdIn(ids).stream()
+                .collect(Collectors.toMap(Book::getId, Function.identity()));
+        return ids.stream()
+                .map(booksById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
     }
 } 
\ No newline at end of file
@@ -0,0 +1,285 @@
+package com.example.library.service.impl;
+
+import com.example.library.service.CatalogGenerator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Writes genres, authors and books as multi-row INSERTs, one transaction per chunk, with chunks
+ * spread over a worker pool. Ids are assigned up front from the current maximum so book_author
+ * rows can be written without reading generated keys back; MySQL moves AUTO_INCREMENT past them.
+ * <p>
+ * Popularity follows Zipf distributions: a few genres hold most books and a few authors are very
+ * prolific, which is what makes genre and author listings uneven in production.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CatalogGeneratorImpl implements CatalogGenerator {
+
+    private static final String[] GENRE_NAMES = {
+            "Fiction", "Mystery", "Science Fiction", "Romance", "Historical Fiction", "Thriller", "Horror",
+            "Fantasy", "Biography", "Poetry", "Travel", "History", "Philosophy", "Science", "Cooking", "Art",
+            "Young Adult", "Children", "Crime", "Humor", "Memoir", "Essays", "Drama", "Adventure"
+    };
+    private static final String[] FIRST_NAMES = {
+            "Anna", "Ben", "Clara", "David", "Elena", "Farid", "Grace", "Hiro", "Ines", "Jonas", "Kara", "Liam",
+            "Maya", "Nikolai", "Olivia", "Pavel", "Quinn", "Rosa", "Samuel", "Tara", "Umar", "Vera", "Wen", "Yusuf"
+    };
+    private static final String[] LAST_NAMES = {
+            "Abbott", "Bauer", "Castillo", "Dubois", "Eriksen", "Fischer", "Garcia", "Hughes", "Ito", "Jensen",
+            "Kowalski", "Larsen", "Moreau", "Novak", "Okafor", "Petrov", "Quintero", "Rossi", "Silva", "Tanaka",
+            "Ueda", "Varga", "Weber", "Young", "Zhang", "Mendes", "Haddad", "Sato", "Nilsson", "Brennan"
+    };
+    private static final String[] TITLE_WORDS = {
+            "shadow", "river", "empire", "garden", "winter", "letters", "journey", "silent", "crown", "ocean",
+            "memory", "night", "stone", "forest", "machine", "fire", "glass", "city", "storm", "house", "last",
+            "secret", "golden", "broken", "distant", "summer", "island", "iron", "hidden", "wild", "north", "light"
+    };
+    private static final String[] SENTENCES = {
+            "A sweeping story of loss and renewal.",
+            "Two strangers meet on the eve of a war that will change everything.",
+            "An investigation that leads far closer to home than anyone expected.",
+            "A family chronicle spanning three generations.",
+            "Told with warmth, wit and an eye for the small details of ordinary lives.",
+            "A quiet town hides a secret that refuses to stay buried.",
+            "The definitive account, drawing on previously unpublished sources.",
+            "An unlikely friendship tested by ambition and betrayal."
+    };
+
+    private static final String INSERT_GENRES_SQL = "INSERT INTO genres (id, name, description, created_at, updated_at) VALUES ";
+    private static final String INSERT_AUTHORS_SQL = "INSERT INTO authors (id, name, description, created_at, updated_at) VALUES ";
+    private static final String INSERT_BOOKS_SQL =
+            "INSERT INTO books (id, title, description, isbn, publish_date, genre_id, created_at, updated_at) VALUES ";
+    private static final String INSERT_BOOK_AUTHORS_SQL = "INSERT INTO book_author (book_id, author_id) VALUES ";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.seed.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${app.seed.threads:4}")
+    private int threads;
+
+    @Value("${app.seed.random-seed:42}")
+    private long randomSeed;
+
+    @Override
+    public Result generate(int genres, int authors, long books) {
+        if (books > 0 && (genres <= 0 || authors <= 0)) {
+            throw new IllegalArgumentException("Books need at least one genre and one author");
+        }
+        long start = System.currentTimeMillis();
+        long firstGenreId = maxId("genres") + 1;
+        long firstAuthorId = maxId("authors") + 1;
+        long firstBookId = maxId("books") + 1;
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        double[] genreWeights = zipfCumulative(genres, 1.0);
+        double[] authorWeights = zipfCumulative(authors, 1.1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, threads));
+        try {
+            insertGenres(firstGenreId, genres, now);
+
+            List<Future<?>> tasks = new ArrayList<>();
+            for (long offset = 0; offset < authors; offset += batchSize) {
+                long from = firstAuthorId + offset;
+                int count = (int) Math.min(batchSize, authors - offset);
+                tasks.add(executor.submit(() -> insertAuthors(from, count, now)));
+            }
+            await(tasks);
+
+            tasks.clear();
+            AtomicLong written = new AtomicLong();
+            long chunks = (books + batchSize - 1) / batchSize;
+            for (long chunk = 0; chunk < chunks; chunk++) {
+                long from = firstBookId + chunk * batchSize;
+                int count = (int) Math.min(batchSize, books - chunk * batchSize);
+                SplittableRandom random = new SplittableRandom(randomSeed + chunk);
+                tasks.add(executor.submit(() -> {
+                    insertBooks(from, count, random, firstGenreId, genreWeights, firstAuthorId, authorWeights, now);
+                    long total = written.addAndGet(count);
+                    if (total % (batchSize * 100L) < count) {
+                        log.info("Generated {} of {} books", total, books);
+                    }
+                }));
+            }
+            await(tasks);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Result result = new Result(genres, authors, books, System.currentTimeMillis() - start);
+        log.info("Generated synthetic catalog: {}", result);
+        return result;
+    }
+
+    private void insertGenres(long firstId, int count, Timestamp now) {
+        // Genre names are unique, so names taken by earlier runs or the sample data get a number
+        Set<String> taken = new HashSet<>(jdbcTemplate.queryForList("SELECT name FROM genres", String.class));
+        List<Object> args = new ArrayList<>(count * 5);
+        for (int i = 0; i < count; i++) {
+            String base = GENRE_NAMES[i % GENRE_NAMES.length];
+            String name = base;
+            for (int n = 2; !taken.add(name); n++) {
+                name = base + " " + n;
+            }
+            args.addAll(Arrays.asList(firstId + i, name, "Generated genre", now, now));
+        }
+        insert(INSERT_GENRES_SQL, 5, args);
+    }
+
+    private void insertAuthors(long firstId, int count, Timestamp now) {
+        // Author names are looked up as if unique, so names that come round again get the cycle number
+        long cycle = FIRST_NAMES.length * 26L * LAST_NAMES.length;
+        List<Object> args = new ArrayList<>(count * 5);
+        for (int i = 0; i < count; i++) {
+            long id = firstId + i;
+            String name = FIRST_NAMES[(int) (id % FIRST_NAMES.length)] + " "
+                    + (char) ('A' + (id / FIRST_NAMES.length) % 26) + ". "
+                    + LAST_NAMES[(int) (id / (FIRST_NAMES.length * 26L) % LAST_NAMES.length)];
+            if (id >= cycle) {
+                name += " " + (id / cycle + 1);
+            }
+            args.addAll(Arrays.asList(id, name, "Generated author", now, now));
+        }
+        insert(INSERT_AUTHORS_SQL, 5, args);
+    }
+
+    private void insertBooks(long firstId, int count, SplittableRandom random, long firstGenreId, double[] genreWeights,
+                             long firstAuthorId, double[] authorWeights, Timestamp now) {
+        List<Object> bookArgs = new ArrayList<>(count * 8);
+        List<Object> authorArgs = new ArrayList<>(count * 3);
+        for (int i = 0; i < count; i++) {
+            long id = firstId + i;
+            bookArgs.addAll(Arrays.asList(id, title(random), description(random), String.format(Locale.ROOT, "SYN%010d", id),
+                    Timestamp.valueOf(publishDate(random)), firstGenreId + sample(genreWeights, random), now, now));
+
+            // Most books have a single author, some are co-written
+            double roll = random.nextDouble();
+            int authorCount = roll < 0.85 ? 1 : roll < 0.97 ? 2 : 3;
+            long[] chosen = new long[authorCount];
+            int chosenCount = 0;
+            for (int a = 0; a < authorCount; a++) {
+                long authorId = firstAuthorId + sample(authorWeights, random);
+                // A repeated draw would violate the join table's key, so the book just gets fewer authors
+                if (!contains(chosen, chosenCount, authorId)) {
+                    chosen[chosenCount++] = authorId;
+                    authorArgs.add(id);
+                    authorArgs.add(authorId);
+                }
+            }
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            insert(INSERT_BOOKS_SQL, 8, bookArgs);
+            insert(INSERT_BOOK_AUTHORS_SQL, 2, authorArgs);
+        });
+    }
+
+    private static boolean contains(long[] values, int count, long value) {
+        for (int i = 0; i < count; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void insert(String prefix, int columns, List<Object> args) {
+        if (args.isEmpty()) {
+            return;
+        }
+        String row = "(" + "?, ".repeat(columns - 1) + "?)";
+        int rows = args.size() / columns;
+        StringBuilder sql = new StringBuilder(prefix.length() + rows * (row.length() + 2)).append(prefix);
+        for (int i = 0; i < rows; i++) {
+            sql.append(i == 0 ? "" : ", ").append(row);
+        }
+        jdbcTemplate.update(sql.toString(), args.toArray());
+    }
+
+    private long maxId(String table) {
+        Long max = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+        return max != null ? max : 0;
+    }
+
+    private static String title(SplittableRandom random) {
+        int words = 1 + random.nextInt(4);
+        StringBuilder title = new StringBuilder(random.nextInt(3) == 0 ? "The" : "");
+        for (int i = 0; i < words; i++) {
+            String word = TITLE_WORDS[random.nextInt(TITLE_WORDS.length)];
+            if (!title.isEmpty()) {
+                title.append(' ');
+            }
+            title.append(Character.toUpperCase(word.charAt(0))).append(word, 1, word.length());
+        }
+        return title.toString();
+    }
+
+    private static String description(SplittableRandom random) {
+        int sentences = 1 + random.nextInt(3);
+        StringBuilder description = new StringBuilder();
+        for (int i = 0; i < sentences; i++) {
+            description.append(i == 0 ? "" : " ").append(SENTENCES[random.nextInt(SENTENCES.length)]);
+        }
+        return description.toString();
+    }
+
+    // Recent years are far more common than old ones
+    private static LocalDateTime publishDate(SplittableRandom random) {
+        int age = (int) Math.min(200, -Math.log(1 - random.nextDouble()) * 20);
+        return LocalDateTime.of(LocalDateTime.now().getYear() - age, 1 + random.nextInt(12), 1 + random.nextInt(28), 0, 0);
+    }
+
+    private static double[] zipfCumulative(int size, double exponent) {
+        double[] cumulative = new double[size];
+        double sum = 0;
+        for (int i = 0; i < size; i++) {
+            sum += 1 / Math.pow(i + 1, exponent);
+            cumulative[i] = sum;
+        }
+        for (int i = 0; i < size; i++) {
+            cumulative[i] /= sum;
+        }
+        return cumulative;
+    }
+
+    private static int sample(double[] cumulative, SplittableRandom random) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        return Math.min(index >= 0 ? index : -index - 1, cumulative.length - 1);
+    }
+
+    private static void await(List<Future<?>> tasks) {
+        try {
+            for (Future<?> task : tasks) {
+                task.get();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Catalog generation interrupted", ex);
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("Catalog generation failed", ex.getCause());
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.example.library.service.impl;
+
+import com.example.library.dto.CoverVariant;
+import com.example.library.repository.BookRepository;
+import com.example.library.service.CoverGarbageCollector;
+import com.example.library.service.CoverImageService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * Deletes cover files that no book references. The sorted directory listing is merged against
+ * the sorted, paged cover_image_path column, so memory holds file names but never the whole
+ * column. Every candidate is re-checked against the database right before deletion, which keeps
+ * the merge safe even where database collation and Java ordering disagree.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CoverGarbageCollectorImpl implements CoverGarbageCollector {
+
+    // Close to the case-insensitive collation the column is sorted with in MySQL
+    private static final Comparator<String> ORDER = String.CASE_INSENSITIVE_ORDER.thenComparing(Comparator.naturalOrder());
+    private static final int PATH_BATCH_SIZE = 1000;
+
+    private final BookRepository bookRepository;
+    private final CoverImageService coverImageService;
+    private final MeterRegistry meterRegistry;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Value("${app.covers.gc.dry-run:false}")
+    private boolean defaultDryRun;
+
+    @Value("${app.covers.gc.grace-period:PT1H}")
+    private Duration gracePeriod;
+
+    @Value("${app.covers.gc.max-deletes-per-second:20}")
+    private int maxDeletesPerSecond;
+
+    @Scheduled(cron = "${app.covers.gc.cron:0 30 3 * * *}")
+    public void scheduledCollect() {
+        collect(defaultDryRun);
+    }
+
+    @Override
+    public Report collect(boolean dryRun) {
+        if (!running.compareAndSet(false, true)) {
+            log.info("Cover garbage collection already running, skipping");
+            return Report.empty(dryRun);
+        }
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            Report report = reconcile(dryRun);
+            log.info("Cover garbage collection finished: {}", report);
+            return report;
+        } catch (IOException ex) {
+            log.warn("Cover garbage collection failed", ex);
+            return Report.empty(dryRun);
+        } finally {
+            sample.stop(meterRegistry.timer("library.covers.gc", "dryRun", String.valueOf(dryRun)));
+            running.set(false);
+        }
+    }
+
+    private Report reconcile(boolean dryRun) throws IOException {
+        Path directory = coverImageService.getStorageLocation();
+        if (!Files.isDirectory(directory)) {
+            return Report.empty(dryRun);
+        }
+
+        List<String> fileNames;
+        try (Stream<Path> files = Files.list(directory)) {
+            fileNames = files.filter(Files::isRegularFile)
+                    .map(file -> file.getFileName().toString())
+                    // Staging and other dot files are managed elsewhere
+                    .filter(name -> !name.startsWith("."))
+                    .sorted(Comparator.comparing(CoverGarbageCollectorImpl::ownerOf, ORDER))
+                    .toList();
+        }
+
+        Instant cutoff = Instant.now().minus(gracePeriod);
+        long pauseNanos = maxDeletesPerSecond > 0 ? TimeUnit.SECONDS.toNanos(1) / maxDeletesPerSecond : 0;
+        ReferencedPaths referenced = new ReferencedPaths();
+        long referencedCount = 0;
+        long skipped = 0;
+        long orphaned = 0;
+        long deleted = 0;
+        long reclaimedBytes = 0;
+
+        for (String fileName : fileNames) {
+            String owner = ownerOf(fileName);
+            if (referenced.contains(owner)) {
+                referencedCount++;
+                continue;
+            }
+            Path file = directory.resolve(fileName);
+            // Recent files may belong to a book write that has not committed yet
+            if (!isOlderThan(file, cutoff)) {
+                skipped++;
+                continue;
+            }
+            if (bookRepository.existsByCoverImagePath(owner)) {
+                referencedCount++;
+                continue;
+            }
+
+            orphaned++;
+            meterRegistry.counter("library.covers.gc.orphans").increment();
+            if (dryRun) {
+                log.info("Dry run: would delete orphaned cover {}", fileName);
+                continue;
+            }
+            long size = sizeOf(file);
+            if (Files.deleteIfExists(file)) {
+                deleted++;
+                reclaimedBytes += size;
+                meterRegistry.counter("library.covers.gc.deleted").increment();
+                meterRegistry.counter("library.covers.gc.reclaimed.bytes").increment(size);
+            }
+            if (pauseNanos > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(pauseNanos);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        return new Report(dryRun, fileNames.size(), referencedCount, skipped, orphaned, deleted, reclaimedBytes);
+    }
+
+    /** Variants belong to the original they were rendered from. */
+    private static String ownerOf(String fileName) {
+        for (CoverVariant variant : CoverVariant.values()) {
+            String suffix = variant.fileName("");
+            if (fileName.endsWith(suffix) && fileName.length() > suffix.length()) {
+                return fileName.substring(0, fileName.length() - suffix.length());
+            }
+        }
+        return fileName;
+    }
+
+    private static boolean isOlderThan(Path file, Instant cutoff) {
+        try {
+            return Files.getLastModifiedTime(file).toInstant().isBefore(cutoff);
+        } catch (IOException ex) {
+            return false;
+        }
+    }
+
+    private static long sizeOf(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException ex) {
+            return 0;
+        }
+    }
+
+    /**
+     * Forward-only cursor over the referenced cover names, fetched in keyset batches. Lookups must
+     * come in ascending order; a name behind the cursor reports false and falls back to the
+     * per-file database check.
+     */
+    private class ReferencedPaths {
+
+        private Iterator<String> batch = List.<String>of().iterator();
+        private String last = "";
+        private String current;
+        private boolean exhausted;
+
+        boolean contains(String name) {
+            while (current == null || ORDER.compare(current, name) < 0) {
+                if (!advance()) {
+                    return false;
+                }
+            }
+            return current.equals(name);
+        }
+
+        private boolean advance() {
+            if (!batch.hasNext()) {
+                if (exhausted) {
+                    return false;
+                }
+                List<String> paths = bookRepository.findCoverImagePathsAfter(last, PageRequest.of(0, PATH_BATCH_SIZE));
+                exhausted = paths.size() < PATH_BATCH_SIZE;
+                if (paths.isEmpty()) {
+                    return false;
+                }
+                last = paths.get(paths.size() - 1);
+                batch = paths.iterator();
+            }
+            current = batch.next();
+            return true;
+        }
+    }
+}
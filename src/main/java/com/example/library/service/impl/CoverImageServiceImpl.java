@@ -0,0 +1,317 @@
+package com.example.library.service.impl;
+
+import com.example.library.dto.CoverVariant;
+import com.example.library.service.CoverImageService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * Stores covers under the SHA-256 of their content, so identical uploads share one file,
+ * and renders resized JPEG variants on a background executor.
+ */
+@Slf4j
+@Service
+public class CoverImageServiceImpl implements CoverImageService {
+
+    private static final String STAGING_DIRECTORY = ".staging";
+    private static final float JPEG_QUALITY = 0.8f;
+    private static final Duration STAGED_FILE_MAX_AGE = Duration.ofHours(1);
+
+    private final Path storageLocation;
+    private final long maxPixels;
+    private final TaskExecutor coverImageExecutor;
+    private final MeterRegistry meterRegistry;
+    private final DistributionSummary uploadBytes;
+    private final Timer variantTimer;
+
+    public CoverImageServiceImpl(@Value("${app.covers.dir:uploads/covers}") String storageDir,
+                                 @Value("${app.covers.max-pixels:40000000}") long maxPixels,
+                                 @Qualifier("coverImageExecutor") TaskExecutor coverImageExecutor,
+                                 MeterRegistry meterRegistry) {
+        this.storageLocation = Paths.get(storageDir).toAbsolutePath().normalize();
+        this.maxPixels = maxPixels;
+        this.coverImageExecutor = coverImageExecutor;
+        this.meterRegistry = meterRegistry;
+        this.uploadBytes = DistributionSummary.builder("library.covers.upload.size")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.variantTimer = Timer.builder("library.covers.variants")
+                .description("Time to render all variants of one cover")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Path getStorageLocation() {
+        return storageLocation;
+    }
+
+    @Override
+    public StagedCover stage(MultipartFile file) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "failed";
+        Path stagedFile = null;
+        try {
+            Path stagingDirectory = Files.createDirectories(storageLocation.resolve(STAGING_DIRECTORY));
+            stagedFile = Files.createTempFile(stagingDirectory, "upload-", ".tmp");
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            try (InputStream in = new DigestInputStream(file.getInputStream(), digest)) {
+                Files.copy(in, stagedFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+            uploadBytes.record(Files.size(stagedFile));
+            checkDimensions(stagedFile);
+
+            String fileName = HexFormat.of().formatHex(digest.digest()) + "." + extensionOf(file.getOriginalFilename());
+            outcome = "staged";
+            return new StagedCover(fileName, stagedFile);
+        } catch (IOException | NoSuchAlgorithmException ex) {
+            deleteQuietly(stagedFile);
+            throw new RuntimeException("Could not store file. Please try again!", ex);
+        } catch (IllegalArgumentException ex) {
+            deleteQuietly(stagedFile);
+            outcome = "rejected";
+            throw ex;
+        } finally {
+            sample.stop(meterRegistry.timer("library.covers.upload", "outcome", outcome));
+        }
+    }
+
+    @Override
+    public void commit(StagedCover cover) {
+        Path target = storageLocation.resolve(cover.fileName());
+        String outcome = "duplicate";
+        try {
+            if (!Files.exists(target)) {
+                Files.move(cover.stagedFile(), target, StandardCopyOption.ATOMIC_MOVE);
+                outcome = "stored";
+                coverImageExecutor.execute(() -> variantTimer.record(() -> generateVariants(target)));
+            } else {
+                touchQuietly(target);
+            }
+        } catch (FileAlreadyExistsException ex) {
+            // A concurrent upload of the same content won the race
+            touchQuietly(target);
+        } catch (IOException ex) {
+            // The row is already committed; the controller answers 404 until the cover is uploaded again
+            outcome = "failed";
+            log.error("Could not move staged cover {} into place", cover.fileName(), ex);
+        } finally {
+            deleteQuietly(cover.stagedFile());
+            meterRegistry.counter("library.covers.commits", "outcome", outcome).increment();
+        }
+    }
+
+    @Override
+    public void discard(StagedCover cover) {
+        deleteQuietly(cover.stagedFile());
+    }
+
+    /**
+     * Staged files are normally moved or discarded within the request; anything older than an hour
+     * was left behind by a crash between staging and commit.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void purgeStaleStagedFiles() {
+        Path stagingDirectory = storageLocation.resolve(STAGING_DIRECTORY);
+        if (!Files.isDirectory(stagingDirectory)) {
+            return;
+        }
+        Instant cutoff = Instant.now().minus(STAGED_FILE_MAX_AGE);
+        try (Stream<Path> files = Files.list(stagingDirectory)) {
+            files.filter(file -> isOlderThan(file, cutoff)).forEach(file -> {
+                log.info("Removing stale staged cover {}", file.getFileName());
+                deleteQuietly(file);
+            });
+        } catch (IOException ex) {
+            log.warn("Could not clean cover staging directory", ex);
+        }
+    }
+
+    @Override
+    public void delete(String fileName) {
+        try {
+            Files.deleteIfExists(storageLocation.resolve(fileName));
+            for (CoverVariant variant : CoverVariant.values()) {
+                Files.deleteIfExists(storageLocation.resolve(variant.fileName(fileName)));
+            }
+        } catch (IOException ex) {
+            log.warn("Could not delete cover {}", fileName, ex);
+        }
+    }
+
+    void generateVariants(Path original) {
+        try {
+            Dimension size = imageSize(original);
+            if (size == null || (long) size.width * size.height > maxPixels) {
+                log.debug("Cover {} is not a readable image or too large, no variants generated", original.getFileName());
+                return;
+            }
+            BufferedImage image = ImageIO.read(original.toFile());
+            if (image == null) {
+                log.debug("Cover {} is not a readable image, no variants generated", original.getFileName());
+                return;
+            }
+            for (CoverVariant variant : CoverVariant.values()) {
+                Path target = original.resolveSibling(variant.fileName(original.getFileName().toString()));
+                if (!Files.exists(target)) {
+                    writeJpeg(resize(image, variant.getWidth()), target);
+                }
+            }
+        } catch (IOException | RuntimeException ex) {
+            log.warn("Could not generate variants for cover {}", original.getFileName(), ex);
+        }
+    }
+
+    /**
+     * Decoding allocates width * height pixels whatever the file size, so a small upload can declare
+     * an image that does not fit in memory. The header is checked before anything is decoded.
+     */
+    private void checkDimensions(Path file) {
+        Dimension size;
+        try {
+            size = imageSize(file);
+        } catch (IOException ex) {
+            // A damaged header is stored like any other unreadable file and gets no variants
+            return;
+        }
+        if (size != null && (long) size.width * size.height > maxPixels) {
+            throw new IllegalArgumentException("Cover image is too large: " + size.width + "x" + size.height + " pixels");
+        }
+    }
+
+    // Reads only the header; null when no installed reader recognizes the file
+    static Dimension imageSize(Path file) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(file.toFile())) {
+            if (in == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                return new Dimension(reader.getWidth(0), reader.getHeight(0));
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private BufferedImage resize(BufferedImage image, int maxWidth) {
+        int width = Math.min(maxWidth, image.getWidth());
+        int height = Math.max(1, Math.round(image.getHeight() * (width / (float) image.getWidth())));
+        BufferedImage resized = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = resized.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            // JPEG has no alpha channel: flatten transparent covers onto white
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, width, height);
+            graphics.drawImage(image, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return resized;
+    }
+
+    private void writeJpeg(BufferedImage image, Path target) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        Path temp = Files.createTempFile(target.getParent().resolve(STAGING_DIRECTORY), "variant-", ".tmp");
+        try {
+            try (ImageOutputStream out = ImageIO.createImageOutputStream(temp.toFile())) {
+                ImageWriteParam param = writer.getDefaultWriteParam();
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(JPEG_QUALITY);
+                param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+                writer.setOutput(out);
+                writer.write(null, new IIOImage(image, null, null), param);
+            } finally {
+                writer.dispose();
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * An existing file may be an orphan the collector already listed. Refreshing its modification
+     * time puts it back inside the grace period, so it is not deleted before the new row is seen.
+     */
+    private static void touchQuietly(Path file) {
+        try {
+            Files.setLastModifiedTime(file, FileTime.from(Instant.now()));
+        } catch (IOException ex) {
+            log.warn("Could not refresh the modification time of cover {}", file.getFileName(), ex);
+        }
+    }
+
+    private static boolean isOlderThan(Path file, Instant cutoff) {
+        try {
+            return Files.getLastModifiedTime(file).toInstant().isBefore(cutoff);
+        } catch (IOException ex) {
+            return false;
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ex) {
+            log.warn("Could not delete {}", file, ex);
+        }
+    }
+
+    private static String extensionOf(String originalFilename) {
+        String extension = StringUtils.getFilenameExtension(originalFilename);
+        if (extension == null || !extension.matches("[A-Za-z0-9]{1,5}")) {
+            return "img";
+        }
+        return extension.toLowerCase(Locale.ROOT);
+    }
+}
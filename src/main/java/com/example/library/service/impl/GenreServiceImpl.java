@@ -1,27 +1,46 @@
 package com.example.library.service.impl;
 
+import com.example.library.config.CacheConfig;
+import com.example.library.dto.CursorPage;
 import com.example.library.entity.Genre;
+import com.example.library.event.GenreChangedEvent;
+import com.example.library.event.ChangeType;
 import com.example.library.repository.GenreRepository;
 import com.example.library.service.GenreService;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
 @Transactional
 public class GenreServiceImpl implements GenreService {
 
+    private static final String ALL_GENRES_KEY = "all";
+
     private final GenreRepository genreRepository;
+    private final CacheManager cacheManager;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public Genre createGenre(Genre genre) {
-        return genreRepository.save(genre);
+        Genre savedGenre = genreRepository.save(genre);
+        cache(CacheConfig.GENRES).evict(ALL_GENRES_KEY);
+        eventPublisher.publishEvent(new GenreChangedEvent(ChangeType.CREATED, savedGenre.getId(), savedGenre));
+        return savedGenre;
     }
 
     @Override
@@ -29,10 +48,17 @@ public class GenreServiceImpl implements GenreService {
         Genre existingGenre = genreRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Genre not found with id: " + id));
 
+        Cache genresByName = cache(CacheConfig.GENRES_BY_NAME);
+        genresByName.evict(existingGenre.getName());
+        genresByName.evict(genre.getName());
+        cache(CacheConfig.GENRES).evict(ALL_GENRES_KEY);
+
         existingGenre.setName(genre.getName());
         existingGenre.setDescription(genre.getDescription());
 
-        return genreRepository.save(existingGenre);
+        Genre savedGenre = genreRepository.save(existingGenre);
+        eventPublisher.publishEvent(new GenreChangedEvent(ChangeType.UPDATED, id, savedGenre));
+        return savedGenre;
     }
 
     @Override
@@ -40,6 +66,9 @@ public class GenreServiceImpl implements GenreService {
         Genre genre = genreRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Genre not found with id: " + id));
         genreRepository.delete(genre);
+        cache(CacheConfig.GENRES_BY_NAME).evict(genre.getName());
+        cache(CacheConfig.GENRES).evict(ALL_GENRES_KEY);
+        eventPublisher.publishEvent(new GenreChangedEvent(ChangeType.DELETED, id, null));
     }
 
     @Override
@@ -49,6 +78,12 @@ public class GenreServiceImpl implements GenreService {
                 .orElseThrow(() -> new EntityNotFoundException("Genre not found with id: " + id));
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<LocalDateTime> getLastModified(Long id) {
+        return genreRepository.findUpdatedAtById(id);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Page<Genre> getAllGenres(Pageable pageable) {
@@ -70,6 +105,40 @@ public class GenreServiceImpl implements GenreService {
     @Override
     @Transactional(readOnly = true)
     public List<Genre> findAll() {
-        return genreRepository.findAll();
+        return cache(CacheConfig.GENRES).get(ALL_GENRES_KEY, () -> genreRepository.findAll());
+    }
+
+    @Override
+    public Genre findOrCreateByName(String name, String defaultDescription) {
+        Cache genresByName = cache(CacheConfig.GENRES_BY_NAME);
+        Genre cached = genresByName.get(name, Genre.class);
+        if (cached != null) {
+            return cached;
+        }
+
+        Optional<Genre> existing = genreRepository.findByName(name);
+        if (existing.isPresent()) {
+            genresByName.put(name, existing.get());
+            return existing.get();
+        }
+
+        Genre genre = new Genre();
+        genre.setName(name);
+        genre.setDescription(defaultDescription);
+        return createGenre(genre);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<Genre> scrollGenres(String cursor, int size) {
+        CursorPage.Position position = CursorPage.decodeCursor(cursor);
+        Slice<Genre> slice = genreRepository.findByIdGreaterThan(position != null ? position.id() : 0L,
+                CursorPage.sliceRequest(size, Sort.by("id")));
+        return CursorPage.of(slice.getContent(), slice.hasNext(), Genre::getId, null);
+    }
+
+    // Puts and evictions take effect only after the surrounding transaction commits
+    private Cache cache(String name) {
+        return new TransactionAwareCacheDecorator(cacheManager.getCache(name));
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,22 @@
+package com.example.library.service.impl;
+
+import com.example.library.dto.Suggestion;
+import com.example.library.search.SuggestionIndex;
+import com.example.library.service.SuggestionService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class SuggestionServiceImpl implements SuggestionService {
+
+    private final SuggestionIndex suggestionIndex;
+
+    // Answered from memory only: a database fallback would bring back the per-keystroke scans
+    @Override
+    public List<Suggestion> suggest(String query, int limit) {
+        return suggestionIndex.suggest(query, limit);
+    }
+}
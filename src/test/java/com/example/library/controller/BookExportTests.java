@@ -0,0 +1,113 @@
+package com.example.library.controller;
+
+import com.example.library.dto.CursorPage;
+import com.example.library.repository.BookRepository;
+import com.example.library.search.BookSearchIndex;
+import com.example.library.search.SuggestionIndex;
+import com.example.library.security.JwtTokenProvider;
+import com.example.library.service.CatalogGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Interceptor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.hibernate.type.Type;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:book-export;DB_CLOSE_DELAY=-1;MODE=MySQL",
+		"spring.datasource.username=sa",
+		"spring.datasource.password=",
+		"spring.datasource.driver-class-name=org.h2.Driver",
+		"spring.jpa.properties.hibernate.dialect=",
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"spring.jpa.properties.hibernate.generate_statistics=true",
+		"spring.jpa.properties.hibernate.session_factory.session_scoped_interceptor="
+				+ "com.example.library.controller.BookExportTests$LoadCounter"
+})
+@AutoConfigureMockMvc
+class BookExportTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private CatalogGenerator catalogGenerator;
+
+	@Autowired
+	private BookRepository bookRepository;
+
+	@Autowired
+	private BookSearchIndex bookSearchIndex;
+
+	@Autowired
+	private SuggestionIndex suggestionIndex;
+
+	@Autowired
+	private JwtTokenProvider jwtTokenProvider;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Test
+	void exportsEveryChunkFromItsOwnPersistenceContext() throws Exception {
+		catalogGenerator.generate(5, 20, 3 * CursorPage.MAX_SIZE + 50);
+		while (!bookSearchIndex.isReady() || !suggestionIndex.isReady()) {
+			Thread.sleep(20);
+		}
+		long books = bookRepository.count();
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+		LoadCounter.largest.set(0);
+
+		MvcResult started = mockMvc.perform(get("/api/books/export")
+						.header(HttpHeaders.AUTHORIZATION, "Bearer " + jwtTokenProvider.generateToken("admin@example.com")))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		String body = mockMvc.perform(asyncDispatch(started))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+
+		JsonNode exported = objectMapper.readTree(body);
+		assertThat(exported.size()).isEqualTo(books);
+		// One short session per chunk, all closed again, and none of them held more than about one chunk
+		assertThat(statistics.getSessionOpenCount()).isGreaterThanOrEqualTo(books / CursorPage.MAX_SIZE);
+		assertThat(statistics.getSessionCloseCount()).isEqualTo(statistics.getSessionOpenCount());
+		assertThat(LoadCounter.largest.get()).isLessThan(2 * CursorPage.MAX_SIZE);
+	}
+
+	/**
+	 * Hibernate creates one per session, so its count is the number of entities that session's
+	 * persistence context has loaded.
+	 */
+	public static class LoadCounter implements Interceptor {
+
+		static final AtomicInteger largest = new AtomicInteger();
+
+		private int loaded;
+
+		@Override
+		public boolean onLoad(Object entity, Object id, Object[] state, String[] propertyNames, Type[] types) {
+			largest.accumulateAndGet(++loaded, Math::max);
+			return false;
+		}
+	}
+}
@@ -0,0 +1,89 @@
+package com.example.library.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReplicaRoutingDataSourceTests {
+
+	private static final String PRIMARY_URL = "jdbc:h2:mem:routing-primary";
+	private static final String REPLICA_URL = "jdbc:h2:mem:routing-replica";
+
+	@AfterEach
+	void tearDown() {
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+		TransactionSynchronizationManager.setActualTransactionActive(false);
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void routesReadOnlyTransactionsToReplica() throws SQLException {
+		ReplicaRoutingDataSource dataSource = routing("");
+
+		assertThat(urlInTransaction(dataSource, true)).isEqualTo(REPLICA_URL);
+		assertThat(urlInTransaction(dataSource, false)).isEqualTo(PRIMARY_URL);
+	}
+
+	@Test
+	void fallsBackToPrimaryWhenReplicaLags() throws SQLException {
+		ReplicaRoutingDataSource dataSource = routing("SELECT 60");
+
+		assertThat(dataSource.getReplicaAvailability()).containsEntry("replica", false);
+		assertThat(urlInTransaction(dataSource, true)).isEqualTo(PRIMARY_URL);
+	}
+
+	@Test
+	void readsLagFromReplicaStatusColumn() throws SQLException {
+		ReplicaRoutingDataSource dataSource = routing("SELECT 60 AS Relay_Log_Pos, 0 AS Seconds_Behind_Source");
+
+		assertThat(dataSource.getReplicaAvailability()).containsEntry("replica", true);
+		assertThat(urlInTransaction(dataSource, true)).isEqualTo(REPLICA_URL);
+	}
+
+	@Test
+	void readsFromPrimaryAfterOwnWrite() throws SQLException {
+		ReplicaRoutingDataSource dataSource = routing("SELECT 0");
+
+		authenticate("writer@example.com");
+		urlInTransaction(dataSource, false);
+		assertThat(urlInTransaction(dataSource, true)).isEqualTo(PRIMARY_URL);
+
+		authenticate("reader@example.com");
+		assertThat(urlInTransaction(dataSource, true)).isEqualTo(REPLICA_URL);
+	}
+
+	private ReplicaRoutingDataSource routing(String lagQuery) {
+		ReplicaRoutingDataSource dataSource = new ReplicaRoutingDataSource(
+				new DriverManagerDataSource(PRIMARY_URL + ";DB_CLOSE_DELAY=-1"),
+				Map.of("replica", new DriverManagerDataSource(REPLICA_URL + ";DB_CLOSE_DELAY=-1")),
+				Duration.ofSeconds(5), Duration.ofSeconds(10), lagQuery);
+		dataSource.afterPropertiesSet();
+		dataSource.checkReplicas();
+		return dataSource;
+	}
+
+	private String urlInTransaction(ReplicaRoutingDataSource dataSource, boolean readOnly) throws SQLException {
+		TransactionSynchronizationManager.setActualTransactionActive(true);
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+		try (Connection connection = dataSource.getConnection()) {
+			String url = connection.getMetaData().getURL();
+			return url.substring(0, url.indexOf(';') > 0 ? url.indexOf(';') : url.length());
+		}
+	}
+
+	private void authenticate(String username) {
+		SecurityContextHolder.getContext().setAuthentication(
+				new UsernamePasswordAuthenticationToken(username, null, List.of()));
+	}
+}
@@ -0,0 +1,114 @@
+package com.example.library.datasource;
+
+import com.example.library.entity.Genre;
+import com.example.library.service.GenreService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Routes through the real transaction manager, lazy connection proxy and services, with the
+ * primary and the replica as two separate H2 databases, so a query's result shows where it ran.
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=" + ReplicaRoutingIntegrationTests.PRIMARY_URL,
+		"spring.datasource.username=sa",
+		"spring.datasource.password=",
+		"spring.datasource.driver-class-name=org.h2.Driver",
+		"spring.jpa.properties.hibernate.dialect=",
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"app.datasource.replica.urls=" + ReplicaRoutingIntegrationTests.REPLICA_URL,
+		"app.datasource.replica.sticky-window=PT10S"
+})
+class ReplicaRoutingIntegrationTests {
+
+	static final String PRIMARY_URL = "jdbc:h2:mem:routing-it-primary;DB_CLOSE_DELAY=-1;MODE=MySQL";
+	static final String REPLICA_URL = "jdbc:h2:mem:routing-it-replica;DB_CLOSE_DELAY=-1;MODE=MySQL";
+
+	@Autowired
+	private ApplicationContext context;
+
+	@Autowired
+	private GenreService genreService;
+
+	private final JdbcTemplate primary = new JdbcTemplate(new DriverManagerDataSource(PRIMARY_URL, "sa", ""));
+	private final JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+
+	@BeforeEach
+	void copySchemaToReplica() {
+		// Hibernate only creates the schema on the primary; the replica gets the same tables without rows
+		List<String> schema = primary.queryForList("SCRIPT NODATA", String.class);
+		replica.execute("DROP ALL OBJECTS");
+		schema.forEach(replica::execute);
+		replica.update("INSERT INTO genres (name, description) VALUES ('Replica only', 'Inserted on the replica')");
+	}
+
+	@AfterEach
+	void tearDown() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void usesTheRoutingProxyWithoutARequestScopedEntityManager() {
+		assertThat(context.getBean(DataSource.class)).isInstanceOf(LazyConnectionDataSourceProxy.class);
+		assertThat(context.getBean(PlatformTransactionManager.class)).isInstanceOf(JpaTransactionManager.class);
+		// With one EntityManager per request, a write after a read-only call would reuse the replica connection
+		assertThat(context.getBeansOfType(OpenEntityManagerInViewInterceptor.class)).isEmpty();
+	}
+
+	@Test
+	void readsFromReplicaAndWritesToPrimaryInTheSameThread() {
+		assertThat(genreService.existsByName("Replica only")).isTrue();
+
+		genreService.createGenre(genre("Written after a read"));
+
+		assertThat(count(primary, "Written after a read")).isEqualTo(1);
+		assertThat(count(replica, "Written after a read")).isZero();
+		assertThat(genreService.existsByName("Written after a read")).isFalse();
+		assertThat(genreService.existsByName("Replica only")).isTrue();
+	}
+
+	@Test
+	void writerReadsOwnWritesFromPrimary() {
+		authenticate("writer@example.com");
+		genreService.createGenre(genre("Written by the writer"));
+
+		assertThat(genreService.existsByName("Written by the writer")).isTrue();
+		assertThat(genreService.existsByName("Replica only")).isFalse();
+
+		authenticate("reader@example.com");
+		assertThat(genreService.existsByName("Written by the writer")).isFalse();
+	}
+
+	private static Genre genre(String name) {
+		Genre genre = new Genre();
+		genre.setName(name);
+		genre.setDescription("Routing test");
+		return genre;
+	}
+
+	private static int count(JdbcTemplate database, String name) {
+		return database.queryForObject("SELECT COUNT(*) FROM genres WHERE name = ?", Integer.class, name);
+	}
+
+	private static void authenticate(String username) {
+		SecurityContextHolder.getContext().setAuthentication(
+				new UsernamePasswordAuthenticationToken(username, null, List.of()));
+	}
+}
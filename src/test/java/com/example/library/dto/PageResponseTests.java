@@ -0,0 +1,34 @@
+package com.example.library.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PageResponseTests {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	// BookList.jsx renders content and disables "Next" on last
+	@Test
+	void serializesTheFieldsTheFrontendReads() throws Exception {
+		JsonNode middle = serialize(new PageImpl<>(List.of("b"), PageRequest.of(1, 1), 3));
+		JsonNode end = serialize(new PageImpl<>(List.of("c"), PageRequest.of(2, 1), 3));
+
+		assertThat(middle.get("content").get(0).asText()).isEqualTo("b");
+		assertThat(middle.get("number").asInt()).isEqualTo(1);
+		assertThat(middle.get("totalPages").asInt()).isEqualTo(3);
+		assertThat(middle.get("last").asBoolean()).isFalse();
+		assertThat(end.get("last").asBoolean()).isTrue();
+	}
+
+	private JsonNode serialize(PageImpl<String> page) throws Exception {
+		return objectMapper.readTree(objectMapper.writeValueAsString(PageResponse.of(page, Function.identity())));
+	}
+}
@@ -0,0 +1,153 @@
+package com.example.library.feed;
+
+import com.example.library.event.AuthorChangedEvent;
+import com.example.library.event.BookChangedEvent;
+import com.example.library.event.ChangeType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.eclipse.jetty.websocket.api.Callback;
+import org.eclipse.jetty.websocket.api.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.adapter.NativeWebSocketSession;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CatalogFeedTests {
+
+	// Sends complete when the test says so, which stands in for a slow client
+	private final Deque<Send> sends = new ArrayDeque<>();
+	private CatalogFeed feed;
+	private NativeWebSocketSession session;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		feed = new CatalogFeed(new ObjectMapper());
+		ReflectionTestUtils.setField(feed, "maxConnections", 2);
+		ReflectionTestUtils.setField(feed, "maxBatchSize", 3);
+		ReflectionTestUtils.setField(feed, "historySize", 2);
+		ReflectionTestUtils.setField(feed, "heartbeatInterval", 60000L);
+		ReflectionTestUtils.setField(feed, "sendTimeout", 60000L);
+		session = session("a", sends);
+		feed.afterConnectionEstablished(session);
+	}
+
+	@Test
+	void coalescesChangesPerEntity() throws Exception {
+		feed.onCatalogChange(new BookChangedEvent(ChangeType.CREATED, 1L, null));
+		feed.onCatalogChange(new BookChangedEvent(ChangeType.UPDATED, 1L, null));
+		feed.onCatalogChange(new BookChangedEvent(ChangeType.CREATED, 2L, null));
+		feed.onCatalogChange(new BookChangedEvent(ChangeType.DELETED, 2L, null));
+		feed.onCatalogChange(new AuthorChangedEvent(ChangeType.UPDATED, 1L, null));
+		feed.flush();
+
+		assertThat(sent()).isEqualTo("{\"type\":\"changes\",\"sequence\":1,\"changes\":["
+				+ "{\"entity\":\"book\",\"change\":\"CREATED\",\"id\":1},"
+				+ "{\"entity\":\"author\",\"change\":\"UPDATED\",\"id\":1}]}");
+	}
+
+	@Test
+	void mergesBatchesMissedBySlowClient() throws Exception {
+		feed.onCatalogChange(new BookChangedEvent(ChangeType.UPDATED, 1L, null));
+		feed.flush();
+		feed.onCatalogChange(new BookChangedEvent(ChangeType.UPDATED, 2L, null));
+		feed.flush();
+		feed.onCatalogChange(new BookChangedEvent(ChangeType.CREATED, 3L, null));
+		feed.onCatalogChange(new BookChangedEvent(ChangeType.DELETED, 2L, null));
+		feed.flush();
+		assertThat(sends).hasSize(1);
+
+		sent();
+		feed.flush();
+
+		assertThat(sent()).isEqualTo("{\"type\":\"changes\",\"sequence\":3,\"changes\":["
+				+ "{\"entity\":\"book\",\"change\":\"DELETED\",\"id\":2},"
+				+ "{\"entity\":\"book\",\"change\":\"CREATED\",\"id\":3}]}");
+	}
+
+	@Test
+	void resyncsWhenClientFallsOutOfHistory() throws Exception {
+		feed.onCatalogChange(new BookChangedEvent(ChangeType.UPDATED, 1L, null));
+		feed.flush();
+		for (long id = 2; id <= 4; id++) {
+			feed.onCatalogChange(new BookChangedEvent(ChangeType.UPDATED, id, null));
+			feed.flush();
+		}
+
+		sent();
+		feed.flush();
+
+		assertThat(sent()).isEqualTo("{\"type\":\"resync\",\"sequence\":4}");
+	}
+
+	@Test
+	void resyncsInsteadOfListingLargeBatches() throws Exception {
+		for (long id = 1; id <= 4; id++) {
+			feed.onCatalogChange(new BookChangedEvent(ChangeType.UPDATED, id, null));
+		}
+		feed.flush();
+
+		assertThat(sent()).isEqualTo("{\"type\":\"resync\",\"sequence\":1}");
+	}
+
+	@Test
+	void disconnectsClientsThatStopReading() throws Exception {
+		ReflectionTestUtils.setField(feed, "sendTimeout", 0L);
+		Deque<Send> otherSends = new ArrayDeque<>();
+		NativeWebSocketSession other = session("b", otherSends);
+		feed.afterConnectionEstablished(other);
+		feed.onCatalogChange(new BookChangedEvent(ChangeType.UPDATED, 1L, null));
+		feed.flush();
+		otherSends.poll().done().succeed();
+
+		feed.onCatalogChange(new BookChangedEvent(ChangeType.UPDATED, 2L, null));
+		feed.flush();
+
+		verify(session.getNativeSession(Session.class)).disconnect();
+		verify(other.getNativeSession(Session.class), never()).disconnect();
+		assertThat(otherSends).hasSize(1);
+		assertThat(feed.connections()).isEqualTo(1);
+	}
+
+	@Test
+	void refusesConnectionsOverLimit() throws Exception {
+		feed.afterConnectionEstablished(session("b", new ArrayDeque<>()));
+		WebSocketSession rejected = session("c", new ArrayDeque<>());
+		feed.afterConnectionEstablished(rejected);
+
+		verify(rejected).close(CloseStatus.SERVICE_OVERLOAD);
+		verify(session, never()).close(any());
+		assertThat(feed.connections()).isEqualTo(2);
+	}
+
+	private String sent() {
+		Send send = sends.poll();
+		assertThat(send).isNotNull();
+		send.done().succeed();
+		return send.text();
+	}
+
+	private static NativeWebSocketSession session(String id, Deque<Send> sends) {
+		Session connection = mock(Session.class);
+		doAnswer(invocation -> sends.add(new Send(invocation.getArgument(0), invocation.getArgument(1))))
+				.when(connection).sendText(any(), any());
+		NativeWebSocketSession session = mock(NativeWebSocketSession.class);
+		when(session.getId()).thenReturn(id);
+		when(session.getNativeSession(Session.class)).thenReturn(connection);
+		return session;
+	}
+
+	private record Send(String text, Callback done) {
+	}
+}
@@ -0,0 +1,117 @@
+package com.example.library.repository;
+
+import com.example.library.entity.Author;
+import com.example.library.entity.Book;
+import com.example.library.entity.Genre;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+		"spring.jpa.properties.hibernate.dialect=",
+		"spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class BookRepositoryFetchPlanTests {
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Autowired
+	private BookRepository bookRepository;
+
+	private Statistics statistics;
+
+	private Long bookId;
+
+	@BeforeEach
+	void setUp() {
+		Genre genre = new Genre();
+		genre.setName("Fiction");
+		entityManager.persist(genre);
+
+		List<Author> authors = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			Author author = new Author();
+			author.setName("Author " + i);
+			authors.add(entityManager.persist(author));
+		}
+
+		for (int i = 0; i < 60; i++) {
+			Book book = new Book();
+			book.setTitle("Book " + i);
+			book.setIsbn("isbn-" + i);
+			book.setGenre(genre);
+			book.setAuthors(new HashSet<>(Set.of(authors.get(i % 5), authors.get((i + 1) % 5))));
+			bookId = entityManager.persist(book).getId();
+		}
+
+		entityManager.flush();
+		entityManager.clear();
+		statistics = entityManager.getEntityManager().getEntityManagerFactory()
+				.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+	}
+
+	@Test
+	void listPageLoadsInConstantNumberOfQueries() {
+		Page<Book> page = bookRepository.findAll(PageRequest.of(0, 50));
+		bookRepository.findWithAuthorsByIdIn(page.map(Book::getId).getContent());
+		render(page);
+
+		// page + count + authors, independent of the page size
+		assertThat(page.getContent()).hasSize(50);
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+	}
+
+	@Test
+	void searchPageLoadsInConstantNumberOfQueries() {
+		Page<Book> page = bookRepository.searchBooks("book", PageRequest.of(0, 20));
+		bookRepository.findWithAuthorsByIdIn(page.map(Book::getId).getContent());
+		render(page);
+
+		assertThat(page.getTotalElements()).isEqualTo(60);
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+	}
+
+	@Test
+	void detailLoadsInSingleQuery() {
+		Book book = bookRepository.findDetailedById(bookId).orElseThrow();
+		book.getGenre().getName();
+		book.getAuthors().forEach(Author::getName);
+
+		assertThat(book.getAuthors()).hasSize(2);
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+	}
+
+	@Test
+	void versionLoadsWithoutEntities() {
+		BookRepository.BookVersion version = bookRepository.findVersionById(bookId).orElseThrow();
+
+		assertThat(version.getBookUpdatedAt()).isNotNull();
+		assertThat(version.getGenreUpdatedAt()).isNotNull();
+		assertThat(version.getAuthorsUpdatedAt()).isNotNull();
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+		assertThat(statistics.getEntityLoadCount()).isZero();
+		assertThat(bookRepository.findVersionById(-1L)).isEmpty();
+	}
+
+	private void render(Page<Book> page) {
+		page.forEach(book -> {
+			book.getGenre().getName();
+			book.getAuthors().forEach(Author::getName);
+		});
+	}
+}
@@ -0,0 +1,116 @@
+package com.example.library.search;
+
+import com.example.library.entity.Author;
+import com.example.library.entity.Book;
+import com.example.library.event.AuthorChangedEvent;
+import com.example.library.event.ChangeType;
+import com.example.library.repository.BookRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BookSearchIndexTests {
+
+	private BookRepository bookRepository;
+	private BookSearchIndex index;
+
+	@BeforeEach
+	void setUp() {
+		bookRepository = mock(BookRepository.class);
+		index = new BookSearchIndex(bookRepository);
+		ReflectionTestUtils.setField(index, "indexDescriptions", true);
+		index.index(1L, "The Hobbit", "A fantasy novel about Bilbo Baggins", List.of("J.R.R. Tolkien"), "Fiction");
+		index.index(2L, "The Lord of the Rings", "An epic high-fantasy novel", List.of("J.R.R. Tolkien"), "Fiction");
+		index.index(3L, "Fantasy Worlds", "Essays on Tolkien", List.of("Someone Else"), "Fantasy");
+	}
+
+	@Test
+	void ranksTitleMatchesAboveDescriptionMatches() {
+		assertThat(index.search("fantasy")).containsExactly(3L, 1L, 2L);
+	}
+
+	@Test
+	void requiresEveryQueryTerm() {
+		assertThat(index.search("tolkien hobbit")).containsExactly(1L);
+	}
+
+	@Test
+	void matchesTermPrefixes() {
+		assertThat(index.search("tolk")).containsExactlyInAnyOrder(1L, 2L, 3L);
+		assertThat(index.search("hob")).containsExactly(1L);
+	}
+
+	@Test
+	void reindexReplacesPreviousTerms() {
+		index.index(1L, "There and Back Again", null, List.of("J.R.R. Tolkien"), "Fiction");
+
+		assertThat(index.search("hobbit")).isEmpty();
+		assertThat(index.search("again")).containsExactly(1L);
+	}
+
+	@Test
+	void removeDropsBookFromResults() {
+		index.remove(2L);
+
+		assertThat(index.search("tolkien")).containsExactly(1L, 3L);
+		assertThat(index.size()).isEqualTo(2);
+	}
+
+	@Test
+	void sortsMatchesByTitleIgnoringCaseAndAccents() {
+		index.index(4L, "Épées", null, List.of("J.R.R. Tolkien"), "Fiction");
+		index.index(5L, "ents", null, List.of("J.R.R. Tolkien"), "Fiction");
+
+		assertThat(index.search("tolkien", BookSearchIndex.Order.TITLE, false)).containsExactly(5L, 4L, 3L, 1L, 2L);
+		assertThat(index.search("tolkien", BookSearchIndex.Order.TITLE, true)).containsExactly(2L, 1L, 3L, 4L, 5L);
+		assertThat(index.search("tolkien", BookSearchIndex.Order.ID, true)).containsExactly(5L, 4L, 3L, 2L, 1L);
+	}
+
+	@Test
+	void reindexesBooksOfRenamedAuthor() {
+		Author author = new Author();
+		author.setId(7L);
+		author.setName("Ursula K. Le Guin");
+		Book book = new Book();
+		book.setId(1L);
+		book.setTitle("The Hobbit");
+		book.setAuthors(Set.of(author));
+		when(bookRepository.findIdsByAuthorIdAfter(eq(7L), eq(0L), any())).thenReturn(List.of(1L));
+		when(bookRepository.findWithAuthorsByIdIn(List.of(1L))).thenReturn(List.of(book));
+
+		index.onAuthorChanged(new AuthorChangedEvent(ChangeType.UPDATED, 7L, author));
+
+		assertThat(index.search("guin")).containsExactly(1L);
+		assertThat(index.search("tolkien")).containsExactly(2L, 3L);
+	}
+
+	@Test
+	void leavesOutDescriptionsByDefault() {
+		BookSearchIndex titlesOnly = new BookSearchIndex(mock(BookRepository.class));
+		titlesOnly.index(1L, "The Hobbit", "A fantasy novel about Bilbo Baggins", List.of("J.R.R. Tolkien"), "Fiction");
+
+		assertThat(titlesOnly.search("bilbo")).isEmpty();
+		assertThat(titlesOnly.search("hobbit tolkien")).containsExactly(1L);
+	}
+
+	@Test
+	void ranksLargeResultsByScoreThenId() {
+		for (long id = 10; id < 5000; id++) {
+			index.index(id, id % 2 == 0 ? "Dragon " + id : "Tales", null, List.of("Dragon Writer"), "Fiction");
+		}
+
+		List<Long> ranked = index.search("dragon");
+		assertThat(ranked).hasSize(4990);
+		assertThat(ranked.subList(0, 3)).containsExactly(10L, 12L, 14L);
+		assertThat(ranked.get(2495)).isEqualTo(11L);
+	}
+}
@@ -0,0 +1,52 @@
+package com.example.library.search;
+
+import com.example.library.event.BookChangedEvent;
+import com.example.library.event.ChangeType;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SearchResultCacheTests {
+
+	private final SearchResultCache cache = new SearchResultCache(100, Duration.ofMinutes(10));
+
+	@Test
+	void sharesEntriesBetweenEquivalentTerms() {
+		String term = SearchResultCache.normalize("  Lord of\tthe RINGS ");
+		cache.put(cache.key(term, PageRequest.of(0, 10), true), List.of(3L, 1L, 2L), 42);
+
+		SearchResultCache.Entry entry = cache.get(cache.key("lord of the rings", PageRequest.of(0, 10), true));
+
+		assertThat(entry).isNotNull();
+		assertThat(entry.ids()).containsExactly(3L, 1L, 2L);
+		assertThat(entry.total()).isEqualTo(42);
+	}
+
+	@Test
+	void separatesPagesAndSorts() {
+		cache.put(cache.key("hobbit", PageRequest.of(0, 10), true), List.of(1L), 1);
+
+		assertThat(cache.get(cache.key("hobbit", PageRequest.of(1, 10), true))).isNull();
+		assertThat(cache.get(cache.key("hobbit", PageRequest.of(0, 10, Sort.by("title")), true))).isNull();
+		assertThat(cache.get(cache.key("hobbit", PageRequest.of(0, 10), false))).isNull();
+	}
+
+	@Test
+	void writesInvalidateEntriesAndRacingSearches() {
+		SearchResultCache.Key cached = cache.key("hobbit", PageRequest.of(0, 10), true);
+		cache.put(cached, List.of(1L), 1);
+		SearchResultCache.Key racing = cache.key("tolkien", PageRequest.of(0, 10), true);
+
+		cache.onCatalogChange(new BookChangedEvent(ChangeType.UPDATED, 1L, null));
+		cache.put(racing, List.of(1L), 1);
+
+		assertThat(cache.get(cached)).isNull();
+		assertThat(cache.get(cache.key("hobbit", PageRequest.of(0, 10), true))).isNull();
+		assertThat(cache.get(cache.key("tolkien", PageRequest.of(0, 10), true))).isNull();
+	}
+}
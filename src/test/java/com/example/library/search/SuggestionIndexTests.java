@@ -0,0 +1,96 @@
+package com.example.library.search;
+
+import com.example.library.dto.Suggestion;
+import com.example.library.repository.AuthorRepository;
+import com.example.library.repository.BookRepository;
+import com.example.library.repository.GenreRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class SuggestionIndexTests {
+
+	private SuggestionIndex index;
+
+	@BeforeEach
+	void setUp() {
+		index = new SuggestionIndex(mock(BookRepository.class), mock(AuthorRepository.class),
+				mock(GenreRepository.class));
+		index.indexGenre(1L, "Fantasy");
+		index.indexGenre(2L, "Fiction");
+		index.indexAuthor(10L, "J.R.R. Tolkien");
+		index.indexAuthor(11L, "Terry Pratchett");
+		index.indexBook(100L, "The Hobbit", 1L, List.of(10L));
+		index.indexBook(101L, "The Lord of the Rings", 1L, List.of(10L));
+		index.indexBook(102L, "The Colour of Magic", 1L, List.of(11L));
+	}
+
+	@Test
+	void completesFromLaterWords() {
+		assertThat(texts("rin")).containsExactly("The Lord of the Rings");
+		assertThat(texts("tolk")).containsExactly("J.R.R. Tolkien");
+	}
+
+	@Test
+	void ranksNamesByNumberOfBooks() {
+		assertThat(texts("f")).containsExactly("Fantasy", "Fiction");
+		assertThat(texts("t")).startsWith("J.R.R. Tolkien", "Terry Pratchett");
+	}
+
+	@Test
+	void ignoresCaseAccentsAndPunctuation() {
+		index.indexAuthor(12L, "Gabriel García Márquez");
+
+		assertThat(texts("GARCIA m")).containsExactly("Gabriel García Márquez");
+		assertThat(texts("jrr")).isEmpty();
+		assertThat(texts("j r r")).containsExactly("J.R.R. Tolkien");
+	}
+
+	@Test
+	void followsUpdatesAndRemovals() {
+		index.indexBook(100L, "There and Back Again", 2L, List.of(10L));
+		index.removeBook(101L);
+
+		assertThat(texts("hob")).isEmpty();
+		assertThat(texts("back")).containsExactly("There and Back Again");
+		assertThat(texts("f")).containsExactly("Fantasy", "Fiction");
+		index.removeBook(102L);
+		assertThat(texts("f")).containsExactly("Fiction", "Fantasy");
+		assertThat(texts("the")).containsExactly("There and Back Again");
+	}
+
+	@Test
+	void keepsRankingWhenLeavesSplitAndMerge() {
+		index.indexBook(300L, "Dune", 2L, List.of());
+		index.indexBook(301L, "Dune Messiah", 2L, List.of());
+		index.indexBook(302L, "Dunes of Arrakis", 2L, List.of());
+
+		assertThat(texts("dune")).containsExactly("Dune", "Dune Messiah", "Dunes of Arrakis");
+		assertThat(texts("dune m")).containsExactly("Dune Messiah");
+		index.removeBook(301L);
+		assertThat(texts("dune")).containsExactly("Dune", "Dunes of Arrakis");
+		index.removeBook(300L);
+		assertThat(texts("dune")).containsExactly("Dunes of Arrakis");
+		assertThat(texts("dunes o")).containsExactly("Dunes of Arrakis");
+		assertThat(texts("arr")).containsExactly("Dunes of Arrakis");
+	}
+
+	@Test
+	void limitsResults() {
+		for (long id = 200; id < 230; id++) {
+			index.indexBook(id, "Discworld " + id, 2L, List.of(11L));
+		}
+
+		assertThat(index.suggest("disc", 5)).hasSize(5);
+		assertThat(index.suggest("disc", 50)).hasSize(SuggestionIndex.MAX_SUGGESTIONS);
+		assertThat(index.suggest("", 5)).isEmpty();
+	}
+
+	private List<String> texts(String query) {
+		return index.suggest(query, SuggestionIndex.MAX_SUGGESTIONS).stream().map(Suggestion::getText).toList();
+	}
+}
@@ -0,0 +1,37 @@
+package com.example.library.security;
+
+import com.example.library.entity.User;
+import com.example.library.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CustomUserDetailsServiceTests {
+
+	@Test
+	void passwordUpdateEvictsCachedPrincipal() {
+		UserRepository userRepository = mock(UserRepository.class);
+		VerifiedPrincipalCache principalCache = new VerifiedPrincipalCache(60_000L, 10);
+		CustomUserDetailsService service = new CustomUserDetailsService(userRepository, principalCache);
+		User user = new User();
+		user.setEmail("reader@example.com");
+		user.setPassword("old-hash");
+		when(userRepository.findByEmail("reader@example.com")).thenReturn(Optional.of(user));
+		when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+		UserDetails details = service.loadUserByUsername("reader@example.com");
+		principalCache.put("token", details, Long.MAX_VALUE);
+		assertThat(principalCache.get("token")).isNotNull();
+
+		service.updatePassword(details, "new-hash");
+
+		assertThat(principalCache.get("token")).isNull();
+		assertThat(user.getPassword()).isEqualTo("new-hash");
+	}
+}
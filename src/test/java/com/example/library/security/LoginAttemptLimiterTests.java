@@ -0,0 +1,81 @@
+package com.example.library.security;
+
+import com.example.library.exception.TooManyAttemptsException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LoginAttemptLimiterTests {
+
+	private LoginAttemptLimiter limiter;
+
+	@BeforeEach
+	void setUp() {
+		limiter = new LoginAttemptLimiter();
+		ReflectionTestUtils.setField(limiter, "maxAttemptsPerAddress", 3);
+		ReflectionTestUtils.setField(limiter, "addressWindow", Duration.ofMinutes(1));
+		ReflectionTestUtils.setField(limiter, "maxFailuresPerAccount", 2);
+		ReflectionTestUtils.setField(limiter, "accountWindow", Duration.ofMinutes(15));
+		ReflectionTestUtils.setField(limiter, "maxEntries", 100);
+		limiter.init();
+	}
+
+	@Test
+	void refusesAddressOverLimit() {
+		for (int i = 0; i < 3; i++) {
+			limiter.checkAddress("10.0.0.1");
+		}
+
+		assertThatThrownBy(() -> limiter.checkAddress("10.0.0.1"))
+				.isInstanceOf(TooManyAttemptsException.class)
+				.satisfies(ex -> assertThat(((TooManyAttemptsException) ex).getRetryAfterSeconds()).isBetween(1L, 60L));
+		assertThatCode(() -> limiter.checkAddress("10.0.0.2")).doesNotThrowAnyException();
+	}
+
+	@Test
+	void locksAccountAfterFailuresUntilSuccess() {
+		limiter.recordFailure("reader@example.com");
+		assertThatCode(() -> limiter.checkAccount("reader@example.com")).doesNotThrowAnyException();
+
+		limiter.recordFailure("Reader@Example.com ");
+		assertThatThrownBy(() -> limiter.checkAccount("reader@example.com"))
+				.isInstanceOf(TooManyAttemptsException.class);
+
+		limiter.recordSuccess("reader@example.com");
+		assertThatCode(() -> limiter.checkAccount("reader@example.com")).doesNotThrowAnyException();
+	}
+
+	@Test
+	void keepsLockoutsWhenFloodedWithNewAccounts() {
+		limiter.recordFailure("reader@example.com");
+		limiter.recordFailure("reader@example.com");
+
+		for (int i = 0; i < 1000; i++) {
+			limiter.recordFailure("sprayed-" + i + "@example.com");
+			assertThatThrownBy(() -> limiter.checkAccount("reader@example.com"))
+					.isInstanceOf(TooManyAttemptsException.class);
+		}
+		ForkJoinPool.commonPool().awaitQuiescence(5, TimeUnit.SECONDS);
+
+		assertThatThrownBy(() -> limiter.checkAccount("reader@example.com"))
+				.isInstanceOf(TooManyAttemptsException.class);
+	}
+
+	@Test
+	void boundsTrackedEntries() {
+		for (int i = 0; i < 250; i++) {
+			limiter.checkAddress("10.0.1." + i);
+		}
+		ForkJoinPool.commonPool().awaitQuiescence(5, TimeUnit.SECONDS);
+
+		assertThat(limiter.size()).isLessThanOrEqualTo(100);
+	}
+}
@@ -0,0 +1,115 @@
+package com.example.library.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitFilterTests {
+
+	private RateLimitFilter filter;
+
+	@BeforeEach
+	void setUp() {
+		filter = new RateLimitFilter(new ObjectMapper().findAndRegisterModules(), new SimpleMeterRegistry());
+		ReflectionTestUtils.setField(filter, "enabled", true);
+		ReflectionTestUtils.setField(filter, "clientRate", 1.0);
+		ReflectionTestUtils.setField(filter, "clientBurst", 10);
+		ReflectionTestUtils.setField(filter, "routeRate", 1.0);
+		ReflectionTestUtils.setField(filter, "routeBurst", 12);
+		ReflectionTestUtils.setField(filter, "searchWeight", 5);
+		ReflectionTestUtils.setField(filter, "uploadWeight", 10);
+		ReflectionTestUtils.setField(filter, "bulkWeight", 10);
+		ReflectionTestUtils.setField(filter, "shedLatency", Duration.ofMillis(500));
+		ReflectionTestUtils.setField(filter, "maxClients", 100);
+		filter.init();
+	}
+
+	@Test
+	void limitsEachClientByWeight() throws Exception {
+		assertThat(status(search("10.0.0.1"))).isEqualTo(200);
+		assertThat(status(search("10.0.0.1"))).isEqualTo(200);
+
+		MockHttpServletResponse refused = filter(search("10.0.0.1"));
+		assertThat(refused.getStatus()).isEqualTo(429);
+		assertThat(refused.getHeader("Retry-After")).isNotNull();
+		assertThat(status(get("/api/books", "10.0.0.2"))).isEqualTo(200);
+	}
+
+	@Test
+	void capsExpensiveRoutesAcrossClients() throws Exception {
+		assertThat(status(search("10.0.0.1"))).isEqualTo(200);
+		assertThat(status(search("10.0.0.2"))).isEqualTo(200);
+
+		assertThat(status(search("10.0.0.3"))).isEqualTo(503);
+		assertThat(status(get("/api/books", "10.0.0.3"))).isEqualTo(200);
+	}
+
+	@Test
+	void keepsThrottledClientsWhenFloodedWithNewAddresses() throws Exception {
+		ReflectionTestUtils.setField(filter, "clientRate", 0.01);
+		filter.init();
+		for (int i = 0; i < 10; i++) {
+			assertThat(status(get("/api/genres", "10.0.0.1"))).isEqualTo(200);
+		}
+		assertThat(status(get("/api/genres", "10.0.0.1"))).isEqualTo(429);
+
+		for (int i = 0; i < 1000; i++) {
+			status(get("/api/genres", "10.1." + i / 256 + "." + i % 256));
+			assertThat(status(get("/api/genres", "10.0.0.1"))).isEqualTo(429);
+		}
+		ForkJoinPool.commonPool().awaitQuiescence(5, TimeUnit.SECONDS);
+
+		assertThat(filter.trackedClients()).isLessThanOrEqualTo(100);
+		assertThat(status(get("/api/genres", "10.0.0.1"))).isEqualTo(429);
+	}
+
+	@Test
+	void shedsExpensiveRequestsWhileSlow() throws Exception {
+		((AtomicLong) ReflectionTestUtils.getField(filter, "averageLatency")).set(TimeUnit.SECONDS.toNanos(2));
+		ReflectionTestUtils.setField(filter, "lastCompletedAt", System.nanoTime());
+
+		assertThat(status(search("10.0.0.1"))).isEqualTo(503);
+		assertThat(status(get("/api/genres", "10.0.0.1"))).isEqualTo(200);
+	}
+
+	@Test
+	void ignoresRequestsOutsideApi() throws Exception {
+		for (int i = 0; i < 20; i++) {
+			assertThat(status(get("/uploads/covers/cover.jpg", "10.0.0.1"))).isEqualTo(200);
+		}
+	}
+
+	private MockHttpServletRequest search(String address) {
+		MockHttpServletRequest request = get("/api/books", address);
+		request.setParameter("searchTerm", "tolkien");
+		return request;
+	}
+
+	private static MockHttpServletRequest get(String path, String address) {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+		request.setRemoteAddr(address);
+		return request;
+	}
+
+	private int status(MockHttpServletRequest request) throws Exception {
+		return filter(request).getStatus();
+	}
+
+	private MockHttpServletResponse filter(MockHttpServletRequest request) throws Exception {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		filter.doFilter(request, response, new MockFilterChain());
+		return response;
+	}
+}
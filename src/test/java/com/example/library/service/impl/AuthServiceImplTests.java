@@ -0,0 +1,106 @@
+package com.example.library.service.impl;
+
+import com.example.library.search.BookSearchIndex;
+import com.example.library.search.SuggestionIndex;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:auth-login;DB_CLOSE_DELAY=-1;MODE=MySQL",
+		"spring.datasource.username=sa",
+		"spring.datasource.password=",
+		"spring.datasource.driver-class-name=org.h2.Driver",
+		"spring.jpa.properties.hibernate.dialect=",
+		"spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureMockMvc
+class AuthServiceImplTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private HikariDataSource dataSource;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private BookSearchIndex bookSearchIndex;
+
+	@Autowired
+	private SuggestionIndex suggestionIndex;
+
+	@MockitoSpyBean
+	private PasswordEncoder passwordEncoder;
+
+	@Test
+	void loginHoldsNoConnectionWhileCheckingThePassword() throws Exception {
+		List<String> held = recordHeldResources();
+		doAnswer(invocation -> {
+			held.addAll(heldResources());
+			return invocation.callRealMethod();
+		}).when(passwordEncoder).matches(any(), anyString());
+
+		mockMvc.perform(post("/api/auth/login")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"email\":\"admin@example.com\",\"password\":\"admin123\"}"))
+				.andExpect(status().isOk());
+
+		assertThat(held).isEmpty();
+	}
+
+	@Test
+	void registrationHoldsNoConnectionWhileHashingThePassword() throws Exception {
+		List<String> held = recordHeldResources();
+		doAnswer(invocation -> {
+			held.addAll(heldResources());
+			return invocation.callRealMethod();
+		}).when(passwordEncoder).encode(any());
+
+		mockMvc.perform(post("/api/auth/register")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"name\":\"New Reader\",\"email\":\"new-reader@example.com\",\"password\":\"secret123\"}"))
+				.andExpect(status().isOk());
+
+		assertThat(held).isEmpty();
+	}
+
+	private List<String> recordHeldResources() throws InterruptedException {
+		// Once the indexes are built nothing else queries, so any active connection belongs to the request
+		while (!bookSearchIndex.isReady() || !suggestionIndex.isReady()) {
+			Thread.sleep(20);
+		}
+		return new ArrayList<>();
+	}
+
+	private List<String> heldResources() {
+		List<String> held = new ArrayList<>();
+		if (dataSource.getHikariPoolMXBean().getActiveConnections() > 0) {
+			held.add("pooled connection");
+		}
+		if (TransactionSynchronizationManager.hasResource(entityManagerFactory)) {
+			held.add("bound EntityManager");
+		}
+		return held;
+	}
+}
@@ -0,0 +1,76 @@
+package com.example.library.service.impl;
+
+import com.example.library.service.CoverImageService.StagedCover;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.mock.web.MockMultipartFile;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CoverImageServiceImplTests {
+
+	@TempDir
+	Path storage;
+
+	@Test
+	void rejectsImagesAboveThePixelLimitBeforeDecoding() throws IOException {
+		CoverImageServiceImpl service = service(100 * 100);
+
+		assertThatThrownBy(() -> service.stage(png(200, 100)))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("200x100");
+		try (var staged = Files.list(storage.resolve(".staging"))) {
+			assertThat(staged).isEmpty();
+		}
+
+		StagedCover cover = service.stage(png(100, 100));
+		assertThat(cover.stagedFile()).exists();
+	}
+
+	@Test
+	void storesFilesThatAreNotImages() {
+		StagedCover cover = service(100).stage(new MockMultipartFile("file", "cover.txt", "text/plain", "text".getBytes()));
+
+		assertThat(cover.fileName()).endsWith(".txt");
+	}
+
+	@Test
+	void refreshesTheModificationTimeOfDuplicates() throws IOException {
+		CoverImageServiceImpl service = service(100 * 100);
+		StagedCover first = service.stage(png(10, 10));
+		service.commit(first);
+		Path stored = storage.resolve(first.fileName());
+		FileTime old = FileTime.from(Instant.now().minus(Duration.ofDays(1)));
+		Files.setLastModifiedTime(stored, old);
+
+		StagedCover duplicate = service.stage(png(10, 10));
+		service.commit(duplicate);
+
+		assertThat(duplicate.fileName()).isEqualTo(first.fileName());
+		assertThat(duplicate.stagedFile()).doesNotExist();
+		assertThat(Files.getLastModifiedTime(stored)).isGreaterThan(old);
+	}
+
+	private CoverImageServiceImpl service(long maxPixels) {
+		return new CoverImageServiceImpl(storage.toString(), maxPixels, new SyncTaskExecutor(), new SimpleMeterRegistry());
+	}
+
+	private static MockMultipartFile png(int width, int height) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png", out);
+		return new MockMultipartFile("file", "cover.png", "image/png", out.toByteArray());
+	}
+}